@@ -0,0 +1,95 @@
+package com.dirty.code.service;
+
+import com.dirty.code.integrations.jwks.FileJwksKeySource;
+import com.dirty.code.integrations.jwks.IdTokenKeySource;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.json.webtoken.JsonWebToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One login's token check with the long-lived verifier against a verifier built per call, which loads the
+ * signing keys every time like the per-request GoogleIdTokenVerifier did (minus the network round trip).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdTokenVerifierBenchmark {
+
+    private static final String CLIENT_ID = "client-id.apps.googleusercontent.com";
+
+    private IdTokenKeySource keySource;
+    private IdTokenVerifier verifier;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        Base64.Encoder base64Url = Base64.getUrlEncoder().withoutPadding();
+        String jwks = String.format("{\"keys\": [{\"kty\": \"RSA\", \"alg\": \"RS256\", \"kid\": \"key-1\", \"n\": \"%s\", \"e\": \"%s\"}]}",
+                base64Url.encodeToString(publicKey.getModulus().toByteArray()),
+                base64Url.encodeToString(publicKey.getPublicExponent().toByteArray()));
+        keySource = new FileJwksKeySource(new ByteArrayResource(jwks.getBytes(StandardCharsets.UTF_8)));
+
+        long now = System.currentTimeMillis() / 1000;
+        JsonWebToken.Payload payload = new JsonWebToken.Payload()
+                .setIssuer("https://accounts.google.com")
+                .setAudience(CLIENT_ID)
+                .setSubject("12345")
+                .setIssuedAtTimeSeconds(now)
+                .setExpirationTimeSeconds(now + 24 * 3600);
+        payload.set("email", "player@example.com");
+        JsonWebSignature.Header header = new JsonWebSignature.Header().setAlgorithm("RS256").setType("JWT").setKeyId("key-1");
+        token = JsonWebSignature.signUsingRsaSha256(keyPair.getPrivate(), GsonFactory.getDefaultInstance(), header, payload);
+
+        verifier = newVerifier();
+        if (verifier.verify(token).isEmpty()) {
+            throw new IllegalStateException("Benchmark token does not verify");
+        }
+    }
+
+    @Benchmark
+    public Optional<GoogleIdToken.Payload> longLived() throws IOException {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public Optional<GoogleIdToken.Payload> perCall() throws Exception {
+        return newVerifier().verify(token);
+    }
+
+    private IdTokenVerifier newVerifier() throws ReflectiveOperationException {
+        IdTokenVerifier created = new IdTokenVerifier(keySource);
+        Field clientId = IdTokenVerifier.class.getDeclaredField("clientId");
+        clientId.setAccessible(true);
+        clientId.set(created, CLIENT_ID);
+        return created;
+    }
+}
@@ -0,0 +1,90 @@
+package com.dirty.code.service;
+
+import com.dirty.code.repository.GameActionRepository;
+import com.dirty.code.repository.model.Avatar;
+import com.dirty.code.repository.model.GameAction;
+import com.dirty.code.repository.model.GameActionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One successful run of an action with money and XP variations, the path taken by every run of
+ * {@code performAction}. Nothing here touches the database: the catalog is served from memory and the
+ * action never hospitalizes or jails the avatar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessActionEffectsBenchmark {
+
+    private GameActionProcessor processor;
+    private GameAction action;
+    private Avatar avatar;
+    private Map<UUID, Integer> purchaseCounts;
+
+    @Setup
+    public void setUp() {
+        action = GameAction.builder()
+                .id(UUID.randomUUID())
+                .type(GameActionType.HACKING)
+                .title("Benchmark")
+                .stamina(0)
+                .hp(0)
+                .money(BigDecimal.valueOf(120))
+                .moneyVariation(0.3)
+                .xp(BigInteger.valueOf(900))
+                .xpVariation(0.4)
+                .failureChance(0.0)
+                .build();
+
+        GameActionCatalog catalog = new GameActionCatalog(inMemoryRepository(List.of(action)));
+        AvatarExpiryService expiryService = new AvatarExpiryService(null, null, null);
+        processor = new GameActionProcessor(new AvatarTimeoutService(null, expiryService), null, expiryService, catalog);
+
+        avatar = Avatar.builder()
+                .id(UUID.randomUUID())
+                .name("Benchmark")
+                .strength(50)
+                .intelligence(50)
+                .charisma(50)
+                .stealth(50)
+                .build();
+        purchaseCounts = new HashMap<>();
+    }
+
+    @Benchmark
+    public boolean processActionEffects() {
+        return processor.processActionEffects(avatar, action, purchaseCounts);
+    }
+
+    private static GameActionRepository inMemoryRepository(List<GameAction> actions) {
+        return (GameActionRepository) Proxy.newProxyInstance(GameActionRepository.class.getClassLoader(),
+                new Class<?>[]{GameActionRepository.class},
+                (_, method, arguments) -> {
+                    if (method.getName().equals("findAll") && arguments == null) {
+                        return actions;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,70 @@
+package com.dirty.code.utils;
+
+import com.dirty.code.repository.model.Avatar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single XP grant worth {@code levels} levels, resolved with the table against recomputing the
+ * requirement of every level on the way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExperienceTableBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int levels;
+
+    private int fromLevel;
+    private BigInteger grant;
+
+    @Setup
+    public void setUp() {
+        fromLevel = 50;
+        grant = ExperienceTable.experienceBetween(fromLevel, fromLevel + levels);
+    }
+
+    @Benchmark
+    public Avatar table() {
+        Avatar avatar = avatarAt(fromLevel);
+        avatar.increaseExperience(grant);
+        return avatar;
+    }
+
+    @Benchmark
+    public int levelByLevel() {
+        int level = fromLevel;
+        BigInteger remaining = grant;
+        BigInteger next = GameFormulas.computeRequiredExperienceForLevel(level + 1);
+        while (remaining.compareTo(next) >= 0) {
+            remaining = remaining.subtract(next);
+            level++;
+            next = GameFormulas.computeRequiredExperienceForLevel(level + 1);
+        }
+        return level;
+    }
+
+    private static Avatar avatarAt(int level) {
+        return Avatar.builder()
+                .level(level)
+                .availablePoints(0)
+                .nextLevelExperience(ExperienceTable.requiredForLevel(level + 1))
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.dirty.code.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Money and XP variations on the long/cents fast path against the BigDecimal arithmetic they replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameNumbersBenchmark {
+
+    private final BigDecimal money = new BigDecimal("1234.56");
+    private final BigInteger xp = BigInteger.valueOf(987_654);
+    private double factor = 0.123456789;
+
+    @Benchmark
+    public BigDecimal moneyFast() {
+        return GameNumbers.applyVariation(money, nextFactor());
+    }
+
+    @Benchmark
+    public BigDecimal moneyBigDecimal() {
+        return money.add(money.multiply(BigDecimal.valueOf(nextFactor())));
+    }
+
+    @Benchmark
+    public BigInteger xpFast() {
+        return GameNumbers.applyVariation(xp, nextFactor());
+    }
+
+    @Benchmark
+    public BigInteger xpBigDecimal() {
+        BigDecimal xpAsDecimal = new BigDecimal(xp);
+        return xpAsDecimal.add(xpAsDecimal.multiply(BigDecimal.valueOf(nextFactor())))
+                .setScale(0, RoundingMode.HALF_UP)
+                .toBigInteger();
+    }
+
+    // Changes the factor on every call so the double-to-decimal conversion cannot be hoisted
+    private double nextFactor() {
+        factor = factor * 1.000001 % 1;
+        return factor;
+    }
+}
@@ -0,0 +1,79 @@
+package com.dirty.code.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Failure chances of a whole action list for one avatar: the formula per action, the batch loop and
+ * the Vector API kernel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequirementMatrixBenchmark {
+
+    private static final int STRENGTH = 25;
+    private static final int INTELLIGENCE = 40;
+    private static final int CHARISMA = -2;
+    private static final int STEALTH = 13;
+
+    @Param({"16", "128", "1024"})
+    private int actions;
+
+    private double[] baseChances;
+    private List<int[]> requirements;
+    private RequirementMatrix matrix;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(12);
+        baseChances = new double[actions];
+        requirements = new ArrayList<>();
+        for (int i = 0; i < actions; i++) {
+            baseChances[i] = random.nextInt(0, 101) / 100.0;
+            requirements.add(new int[]{random.nextInt(0, 60), random.nextInt(0, 60),
+                    random.nextInt(0, 60), random.nextInt(0, 60)});
+        }
+        matrix = RequirementMatrix.of(baseChances, requirements);
+        out = new double[actions];
+    }
+
+    @Benchmark
+    public double[] perAction() {
+        for (int i = 0; i < actions; i++) {
+            out[i] = GameFormulas.calculateFailureChance(baseChances[i], requirements.get(i),
+                    STRENGTH, INTELLIGENCE, CHARISMA, STEALTH);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] scalarBatch() {
+        matrix.scoreScalar(0, STRENGTH, INTELLIGENCE, CHARISMA, STEALTH, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] vector() {
+        VectorFailureScorer.score(matrix, STRENGTH, INTELLIGENCE, CHARISMA, STEALTH, out);
+        return out;
+    }
+}
@@ -16,6 +16,9 @@ import java.io.IOException;
 @ConditionalOnProperty(prefix = "firebase", name = "enabled", havingValue = "true")
 public class FirebaseConfig {
 
+    private static final int CONNECT_TIMEOUT_MS = 2000;
+    private static final int READ_TIMEOUT_MS = 5000;
+
     private final FirebaseProperties firebaseProperties;
 
     @PostConstruct
@@ -57,6 +60,8 @@ public class FirebaseConfig {
                     FirebaseOptions options = FirebaseOptions.builder()
                             .setCredentials(GoogleCredentials.fromStream(is))
                             .setProjectId(firebaseProperties.getProjectId())
+                            .setConnectTimeout(CONNECT_TIMEOUT_MS)
+                            .setReadTimeout(READ_TIMEOUT_MS)
                             .build();
 
                     FirebaseApp.initializeApp(options);
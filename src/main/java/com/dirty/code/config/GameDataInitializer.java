@@ -4,7 +4,9 @@ import com.dirty.code.repository.GameActionRepository;
 import com.dirty.code.repository.model.GameAction;
 import com.dirty.code.repository.model.GameActionType;
 import com.dirty.code.repository.model.SpecialAction;
+import com.dirty.code.service.GameActionCatalog;
 import com.dirty.code.service.SimulatedAvatarService;
+import com.dirty.code.utils.GameRandom;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,14 +28,23 @@ public class GameDataInitializer {
 
     private final GameActionRepository gameActionRepository;
     private final SimulatedAvatarService simulatedAvatarService;
+    private final GameActionCatalog gameActionCatalog;
 
     @Value("${firebase.enabled:false}")
     private boolean firebaseEnabled;
 
+    @Value("${game.random-seed:#{null}}")
+    private Long randomSeed;
+
     @PostConstruct
     public void initializeGameData() {
         log.info("Initializing game data... (Firebase enabled: {})", firebaseEnabled);
 
+        if (randomSeed != null) {
+            GameRandom.useSeed(randomSeed);
+            log.info("Game randomness seeded with {}", randomSeed);
+        }
+
         initializeGameActions();
 
         if (!firebaseEnabled) {
@@ -61,6 +72,8 @@ public class GameDataInitializer {
         createHospitalActions();
         drHooLeeSheet();
         createJailActions();
+
+        gameActionCatalog.reload();
     }
 
 
@@ -0,0 +1,27 @@
+package com.dirty.code.config;
+
+import com.dirty.code.integrations.GoogleCertsClient;
+import com.dirty.code.integrations.jwks.FileJwksKeySource;
+import com.dirty.code.integrations.jwks.IdTokenKeySource;
+import com.dirty.code.integrations.jwks.RemoteJwksKeySource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+@Slf4j
+@Configuration
+public class IdTokenKeySourceConfig {
+
+    @Bean
+    public IdTokenKeySource idTokenKeySource(@Value("${gcp.id-token.jwks-file:}") String jwksFile,
+                                             GoogleCertsClient googleCertsClient,
+                                             ResourceLoader resourceLoader) {
+        if (!jwksFile.isBlank()) {
+            log.info("Verifying Google ID tokens against local JWKS file: {}", jwksFile);
+            return new FileJwksKeySource(resourceLoader.getResource(jwksFile));
+        }
+        return new RemoteJwksKeySource(googleCertsClient);
+    }
+}
@@ -0,0 +1,32 @@
+package com.dirty.code.config;
+
+import com.dirty.code.dto.JsonFrame;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Writes {@link JsonFrame} payloads as their pre-serialized bytes. Outbound only.
+ */
+public class JsonFrameMessageConverter extends AbstractMessageConverter {
+
+    public JsonFrameMessageConverter() {
+        super(MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonFrame.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canConvertFrom(Message<?> message, Class<?> targetClass) {
+        return false;
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return ((JsonFrame) payload).bytes();
+    }
+}
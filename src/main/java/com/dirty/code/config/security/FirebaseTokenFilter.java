@@ -1,9 +1,6 @@
 package com.dirty.code.config.security;
 
-import com.dirty.code.config.FirebaseProperties;
-import com.dirty.code.service.UserService;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
+import com.dirty.code.service.PlayerPrincipalResolver;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,13 +14,14 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 @Slf4j
 public class FirebaseTokenFilter extends OncePerRequestFilter {
 
-    private final UserService userService;
-    private final FirebaseProperties firebaseProperties;
+    private final PlayerPrincipalResolver principalResolver;
+    private final FirebaseTokenVerifier tokenVerifier;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -34,24 +32,22 @@ public class FirebaseTokenFilter extends OncePerRequestFilter {
         if (header != null && header.toLowerCase().startsWith("bearer ")) {
             String token = header.substring(7);
             try {
-                String uid;
-                if (firebaseProperties.isEnabled()) {
-                    log.info("Authenticating request with Firebase token");
-                    FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
-                    uid = decodedToken.getUid();
-                } else {
-                    log.info("Offline mode: using token as UID");
-                    uid = token;
+                Optional<String> verifiedUid = tokenVerifier.verify(token);
+                if (verifiedUid.isEmpty()) {
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    return;
                 }
 
-                if (!userService.existsByUid(uid)) {
+                String uid = verifiedUid.get();
+                Optional<PlayerPrincipal> principal = principalResolver.resolve(uid);
+                if (principal.isEmpty()) {
                     log.warn("DirtyUser with UID: {} not found in local database. Rejecting request.", uid);
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     return;
                 }
 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        uid, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+                        principal.get(), null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 log.info("Successfully authenticated UID: {}", uid);
 
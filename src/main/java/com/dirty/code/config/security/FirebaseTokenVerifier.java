@@ -0,0 +1,110 @@
+package com.dirty.code.config.security;
+
+import com.dirty.code.config.FirebaseProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.firebase.auth.AuthErrorCode;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Verifies Firebase ID tokens, caching the outcome by the SHA-256 of the token so the signature check
+ * runs once per token instead of once per request. Accepted tokens are served from the cache until their
+ * {@code exp} claim; rejected tokens are remembered for a short time so a misbehaving client cannot force
+ * the crypto work over and over.
+ * <p>
+ * With Firebase disabled (offline mode) the token is the uid and nothing is cached.
+ */
+@Slf4j
+@Component
+public class FirebaseTokenVerifier {
+
+    // Firebase ID tokens live for at most one hour
+    private static final Duration MAX_TOKEN_LIFETIME = Duration.ofHours(1);
+    private static final Duration REJECTION_TTL = Duration.ofMinutes(1);
+    private static final long MAX_VERIFIED_TOKENS = 10_000;
+    private static final long MAX_REJECTED_TOKENS = 10_000;
+
+    private final FirebaseProperties firebaseProperties;
+
+    private final Cache<HashCode, VerifiedToken> verifiedTokens = CacheBuilder.newBuilder()
+            .expireAfterWrite(MAX_TOKEN_LIFETIME)
+            .maximumSize(MAX_VERIFIED_TOKENS)
+            .recordStats()
+            .build();
+
+    private final Cache<HashCode, Boolean> rejectedTokens = CacheBuilder.newBuilder()
+            .expireAfterWrite(REJECTION_TTL)
+            .maximumSize(MAX_REJECTED_TOKENS)
+            .recordStats()
+            .build();
+
+    public FirebaseTokenVerifier(FirebaseProperties firebaseProperties, MeterRegistry meterRegistry) {
+        this.firebaseProperties = firebaseProperties;
+        GuavaCacheMetrics.monitor(meterRegistry, verifiedTokens, "firebase.tokens.verified");
+        GuavaCacheMetrics.monitor(meterRegistry, rejectedTokens, "firebase.tokens.rejected");
+    }
+
+    /**
+     * @return the uid of the token, or empty if the token was rejected
+     * @throws FirebaseAuthException if the token could not be checked, e.g. the signing keys could not be fetched
+     */
+    public Optional<String> verify(String token) throws FirebaseAuthException {
+        if (!firebaseProperties.isEnabled()) {
+            return Optional.of(token);
+        }
+
+        HashCode key = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+        long now = System.currentTimeMillis();
+
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                return Optional.of(cached.uid());
+            }
+            verifiedTokens.invalidate(key);
+        }
+        if (rejectedTokens.getIfPresent(key) != null) {
+            return Optional.empty();
+        }
+
+        FirebaseToken decodedToken;
+        try {
+            decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
+        } catch (FirebaseAuthException e) {
+            if (e.getAuthErrorCode() == AuthErrorCode.CERTIFICATE_FETCH_FAILED) {
+                throw e;
+            }
+            log.warn("Rejected Firebase token: {}", e.getMessage());
+            rejectedTokens.put(key, Boolean.TRUE);
+            return Optional.empty();
+        }
+
+        long expiresAtMillis = expiresAtMillis(decodedToken, now);
+        if (expiresAtMillis > now) {
+            verifiedTokens.put(key, new VerifiedToken(decodedToken.getUid(), expiresAtMillis));
+        }
+        return Optional.of(decodedToken.getUid());
+    }
+
+    private static long expiresAtMillis(FirebaseToken decodedToken, long now) {
+        if (decodedToken.getClaims().get("exp") instanceof Number exp) {
+            return Math.min(exp.longValue() * 1000, now + MAX_TOKEN_LIFETIME.toMillis());
+        }
+        return now;
+    }
+
+    private record VerifiedToken(String uid, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.dirty.code.config.security;
+
+import com.dirty.code.exception.ResourceNotFoundException;
+
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * Authenticated player, resolved once per request by {@link FirebaseTokenFilter}.
+ * {@code activeAvatarId} is null while the user has no active avatar.
+ */
+public record PlayerPrincipal(String uid, UUID userId, UUID activeAvatarId) implements Principal {
+
+    @Override
+    public String getName() {
+        return uid;
+    }
+
+    public UUID requireActiveAvatarId() {
+        if (activeAvatarId == null) {
+            throw new ResourceNotFoundException("Active avatar not found for user: " + uid);
+        }
+        return activeAvatarId;
+    }
+}
@@ -1,7 +1,6 @@
 package com.dirty.code.config.security;
 
-import com.dirty.code.config.FirebaseProperties;
-import com.dirty.code.service.UserService;
+import com.dirty.code.service.PlayerPrincipalResolver;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,8 +22,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
-    private final UserService userService;
-    private final FirebaseProperties firebaseProperties;
+    private final PlayerPrincipalResolver principalResolver;
+    private final FirebaseTokenVerifier tokenVerifier;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http){
@@ -41,7 +40,7 @@ public class SecurityConfig {
                         .requestMatchers("/actuator/**").permitAll()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(new FirebaseTokenFilter(userService, firebaseProperties), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new FirebaseTokenFilter(principalResolver, tokenVerifier), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
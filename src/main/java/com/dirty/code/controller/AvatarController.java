@@ -3,6 +3,7 @@ package com.dirty.code.controller;
 import java.util.List;
 import java.util.Map;
 
+import com.dirty.code.config.security.PlayerPrincipal;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import com.dirty.code.dto.AvatarCreateRequestDTO;
@@ -20,16 +21,16 @@ public interface AvatarController {
     AvatarResponseDTO getAvatar(@PathVariable UUID id);
 
     @PostMapping
-    AvatarResponseDTO createAvatar(@AuthenticationPrincipal String uid, @RequestBody AvatarCreateRequestDTO request);
+    AvatarResponseDTO createAvatar(@AuthenticationPrincipal PlayerPrincipal player, @RequestBody AvatarCreateRequestDTO request);
 
     @PutMapping
-    AvatarResponseDTO updateAvatar(@AuthenticationPrincipal String uid, @RequestBody AvatarUpdateRequestDTO request);
+    AvatarResponseDTO updateAvatar(@AuthenticationPrincipal PlayerPrincipal player, @RequestBody AvatarUpdateRequestDTO request);
 
     @GetMapping("/ranking")
     List<AvatarResponseDTO> getRanking();
 
     @PostMapping("/attributes/increase")
-    AvatarResponseDTO increaseAttribute(@AuthenticationPrincipal String uid, @RequestParam Attribute attribute);
+    AvatarResponseDTO increaseAttribute(@AuthenticationPrincipal PlayerPrincipal player, @RequestParam Attribute attribute);
 
     @GetMapping("/check-name")
     Map<String, Boolean> checkNameAvailability(@RequestParam String name);
@@ -1,16 +1,21 @@
 package com.dirty.code.controller;
 
+import com.dirty.code.config.security.PlayerPrincipal;
 import com.dirty.code.dto.ChatMessageDTO;
 import com.dirty.code.dto.ChatRequestDTO;
+import com.dirty.code.dto.JsonFrame;
 import org.springframework.http.HttpStatus;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -19,8 +24,31 @@ public interface ChatController {
 
     @PostMapping("/new-message")
     @ResponseStatus(HttpStatus.CREATED)
-    void sendMessage(Principal principal, @RequestBody ChatRequestDTO request);
+    void sendMessage(@AuthenticationPrincipal PlayerPrincipal player, @RequestBody ChatRequestDTO request);
 
+    /**
+     * Pages of the history. {@code after} and {@code before} are sequences of the history identified by
+     * {@code epoch}; cursors of another epoch are ignored and the latest messages are returned.
+     */
+    @GetMapping("/messages")
+    List<ChatMessageDTO> getMessages(@RequestParam(required = false) Long after,
+                                     @RequestParam(required = false) Long before,
+                                     @RequestParam(required = false) Integer limit,
+                                     @RequestParam(required = false) String epoch);
+
+    /**
+     * History sent on subscription. A client resuming after a reconnect sends the sequence and epoch of the
+     * last message it has in {@code lastSeq} and {@code epoch} headers and only receives the messages after it.
+     * Sequences restart with the server under a new epoch, so a cursor of another epoch, or without one,
+     * gets the whole history.
+     */
     @SubscribeMapping("/global-messages")
-    List<ChatMessageDTO> getInitialMessages();
+    JsonFrame getInitialMessages(@Header(name = "lastSeq", required = false) Long lastSeq,
+                                 @Header(name = "epoch", required = false) String epoch);
+
+    @SubscribeMapping("/chat-history")
+    JsonFrame getHistory(@Header(name = "after", required = false) Long after,
+                         @Header(name = "before", required = false) Long before,
+                         @Header(name = "limit", required = false) Integer limit,
+                         @Header(name = "epoch", required = false) String epoch);
 }
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.dirty.code.config.security.PlayerPrincipal;
 import com.dirty.code.dto.ActionResultDTO;
 import com.dirty.code.dto.GameActionDTO;
 import com.dirty.code.repository.model.GameActionType;
@@ -20,11 +21,11 @@ import com.dirty.code.repository.model.GameActionType;
 public interface GameActionController {
 
     @GetMapping("/type/{type}")
-    List<GameActionDTO> getActionsByType(@AuthenticationPrincipal String uid, @PathVariable GameActionType type);
+    List<GameActionDTO> getActionsByType(@AuthenticationPrincipal PlayerPrincipal player, @PathVariable GameActionType type);
 
     @PostMapping("/{actionId}/perform")
-    ActionResultDTO performAction(@AuthenticationPrincipal String uid, @PathVariable UUID actionId, @RequestParam(defaultValue = "1") Integer times);
+    ActionResultDTO performAction(@AuthenticationPrincipal PlayerPrincipal player, @PathVariable UUID actionId, @RequestParam(defaultValue = "1") Integer times);
 
     @PostMapping("/timeout/leave")
-    ActionResultDTO leaveTimeout(@AuthenticationPrincipal String uid, @RequestParam(required = false, defaultValue = "false") boolean payForFreedom);
+    ActionResultDTO leaveTimeout(@AuthenticationPrincipal PlayerPrincipal player, @RequestParam(required = false, defaultValue = "false") boolean payForFreedom);
 }
@@ -1,5 +1,6 @@
 package com.dirty.code.controller;
 
+import com.dirty.code.config.security.PlayerPrincipal;
 import com.dirty.code.dto.UserResponseDTO;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -14,6 +15,6 @@ public interface UserController {
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    UserResponseDTO getMe(@AuthenticationPrincipal String uid);
+    UserResponseDTO getMe(@AuthenticationPrincipal PlayerPrincipal player);
     
 }
@@ -0,0 +1,19 @@
+package com.dirty.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvatarExpirationDTO {
+    private UUID avatarId;
+    private String kind; // "TIMEOUT" or "STATUS_COOLDOWN"
+    private LocalDateTime expiredAt;
+}
@@ -7,6 +7,7 @@ import java.util.UUID;
 
 import com.dirty.code.repository.model.Avatar;
 import com.dirty.code.repository.model.TimeoutType;
+import com.dirty.code.utils.GameFormulas;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -57,6 +58,8 @@ public class AvatarResponseDTO {
     private Boolean drStrangeVisible;
 
     public static AvatarResponseDTO fromAvatar(Avatar avatar) {
+        boolean temporaryStatsExpired = avatar.temporaryStatsExpired();
+        Avatar.Regenerated regenerated = avatar.regeneratedAt(LocalDateTime.now());
         return AvatarResponseDTO.builder()
                 .id(avatar.getId())
                 .name(avatar.getName())
@@ -66,9 +69,9 @@ public class AvatarResponseDTO {
                 .experience(avatar.getExperience())
                 .totalExperience(avatar.getTotalExperience())
                 .nextLevelExperience(avatar.getNextLevelExperience())
-                .drStrangeVisible(avatar.getSpecialAction() != null ? avatar.getSpecialAction().getDrStrangeVisible() : false)
-                .stamina(avatar.getStamina())
-                .life(avatar.getLife())
+                .drStrangeVisible(avatar.getId() != null && GameFormulas.isDrStrangeVisible(avatar.getId(), LocalDateTime.now()))
+                .stamina(regenerated.stamina())
+                .life(regenerated.life())
                 .money(avatar.getMoney())
 
                 .availablePoints(avatar.getAvailablePoints())
@@ -77,11 +80,11 @@ public class AvatarResponseDTO {
                 .strength(avatar.getStrength())
                 .stealth(avatar.getStealth())
                 .wantedLevel(avatar.getWantedLevel())
-                .temporaryStrength(avatar.getTemporaryStrength())
-                .temporaryIntelligence(avatar.getTemporaryIntelligence())
-                .temporaryCharisma(avatar.getTemporaryCharisma())
-                .temporaryStealth(avatar.getTemporaryStealth())
-                .statusCooldown(avatar.getStatusCooldown())
+                .temporaryStrength(temporaryStatsExpired ? 0 : avatar.getTemporaryStrength())
+                .temporaryIntelligence(temporaryStatsExpired ? 0 : avatar.getTemporaryIntelligence())
+                .temporaryCharisma(temporaryStatsExpired ? 0 : avatar.getTemporaryCharisma())
+                .temporaryStealth(temporaryStatsExpired ? 0 : avatar.getTemporaryStealth())
+                .statusCooldown(temporaryStatsExpired ? null : avatar.getStatusCooldown())
                 .hacking(avatar.getHacking())
                 .work(avatar.getWork())
                 .focus(calculateFocus(avatar.getWork(), avatar.getHacking()))
@@ -10,6 +10,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ChatMessageDTO {
+    private Long seq;
+    private String epoch;
     private String avatarId;
     private String avatarName;
     private String message;
@@ -0,0 +1,55 @@
+package com.dirty.code.dto;
+
+import java.util.List;
+
+/**
+ * A payload already serialized to JSON. Sent as is by the STOMP message converter, so the same bytes
+ * can be reused for every broadcast and history snapshot without touching Jackson again.
+ */
+public final class JsonFrame {
+
+    private static final byte OPEN_ARRAY = '[';
+    private static final byte CLOSE_ARRAY = ']';
+    private static final byte SEPARATOR = ',';
+
+    private final byte[] json;
+
+    public JsonFrame(byte[] json) {
+        this.json = json;
+    }
+
+    /**
+     * Joins the frames into a JSON array, copying their bytes once.
+     */
+    public static JsonFrame array(List<JsonFrame> frames) {
+        int size = 2 + Math.max(frames.size() - 1, 0);
+        for (JsonFrame frame : frames) {
+            size += frame.json.length;
+        }
+
+        byte[] joined = new byte[size];
+        int position = 0;
+        joined[position++] = OPEN_ARRAY;
+        for (int i = 0; i < frames.size(); i++) {
+            if (i > 0) {
+                joined[position++] = SEPARATOR;
+            }
+            byte[] frame = frames.get(i).json;
+            System.arraycopy(frame, 0, joined, position, frame.length);
+            position += frame.length;
+        }
+        joined[position] = CLOSE_ARRAY;
+        return new JsonFrame(joined);
+    }
+
+    /**
+     * The serialized bytes. Not copied, so callers must not modify them.
+     */
+    public byte[] bytes() {
+        return json;
+    }
+
+    public int size() {
+        return json.length;
+    }
+}
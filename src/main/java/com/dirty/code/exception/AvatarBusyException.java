@@ -0,0 +1,11 @@
+package com.dirty.code.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class AvatarBusyException extends RuntimeException {
+    public AvatarBusyException(String message) {
+        super(message);
+    }
+}
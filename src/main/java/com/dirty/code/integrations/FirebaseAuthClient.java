@@ -7,7 +7,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "firebaseAuthClient", url = "https://identitytoolkit.googleapis.com/v1")
+@FeignClient(name = "firebaseAuthClient", url = "${firebase.auth-url:https://identitytoolkit.googleapis.com/v1}")
 public interface FirebaseAuthClient {
 
     @PostMapping("/accounts:signInWithCustomToken")
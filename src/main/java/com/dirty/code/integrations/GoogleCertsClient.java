@@ -0,0 +1,11 @@
+package com.dirty.code.integrations;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+
+@FeignClient(name = "googleCertsClient", url = "${gcp.id-token.certs-url:https://www.googleapis.com}")
+public interface GoogleCertsClient {
+
+    @GetMapping("/oauth2/v3/certs")
+    String getJwks();
+}
@@ -6,7 +6,7 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
 
-@FeignClient(name = "googleOAuthTokenClient", url = "https://oauth2.googleapis.com")
+@FeignClient(name = "googleOAuthTokenClient", url = "${gcp.oauth-token-url:https://oauth2.googleapis.com}")
 public interface GoogleOAuthTokenClient {
 
     @PostMapping(value = "/token", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
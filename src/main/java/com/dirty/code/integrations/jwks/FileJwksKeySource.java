@@ -0,0 +1,24 @@
+package com.dirty.code.integrations.jwks;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.util.Map;
+
+/**
+ * Reads the keys from a local JWKS file, so ID tokens signed with a locally generated RSA keypair
+ * can be verified without reaching Google (load tests, isolated machines).
+ */
+@RequiredArgsConstructor
+public class FileJwksKeySource implements IdTokenKeySource {
+
+    private final Resource jwksFile;
+
+    @Override
+    public Map<String, PublicKey> loadKeys() throws IOException {
+        return Jwks.parse(jwksFile.getContentAsString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,13 @@
+package com.dirty.code.integrations.jwks;
+
+import java.io.IOException;
+import java.security.PublicKey;
+import java.util.Map;
+
+/**
+ * Where the ID-token signing keys come from, by key id ({@code kid}).
+ */
+public interface IdTokenKeySource {
+
+    Map<String, PublicKey> loadKeys() throws IOException;
+}
@@ -0,0 +1,52 @@
+package com.dirty.code.integrations.jwks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses the RSA keys of a JSON Web Key Set ({@code {"keys": [{"kty": "RSA", "kid": ..., "n": ..., "e": ...}]}}).
+ */
+@UtilityClass
+public class Jwks {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static Map<String, PublicKey> parse(String json) throws IOException {
+        JsonNode keys = OBJECT_MAPPER.readTree(json).path("keys");
+        if (!keys.isArray()) {
+            throw new IOException("JWKS has no keys array");
+        }
+
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            for (JsonNode key : keys) {
+                if (!"RSA".equals(key.path("kty").asText()) || !key.hasNonNull("kid")) {
+                    continue;
+                }
+                RSAPublicKeySpec spec = new RSAPublicKeySpec(
+                        decodeUnsigned(key.path("n").asText()),
+                        decodeUnsigned(key.path("e").asText()));
+                publicKeys.put(key.get("kid").asText(), keyFactory.generatePublic(spec));
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IOException("Invalid RSA key in JWKS", e);
+        }
+        return Map.copyOf(publicKeys);
+    }
+
+    private static BigInteger decodeUnsigned(String base64Url) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(base64Url));
+    }
+}
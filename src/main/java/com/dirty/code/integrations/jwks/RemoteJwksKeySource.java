@@ -0,0 +1,19 @@
+package com.dirty.code.integrations.jwks;
+
+import com.dirty.code.integrations.GoogleCertsClient;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.security.PublicKey;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class RemoteJwksKeySource implements IdTokenKeySource {
+
+    private final GoogleCertsClient googleCertsClient;
+
+    @Override
+    public Map<String, PublicKey> loadKeys() throws IOException {
+        return Jwks.parse(googleCertsClient.getJwks());
+    }
+}
@@ -2,12 +2,23 @@ package com.dirty.code.repository;
 
 import com.dirty.code.repository.model.AvatarActionPurchase;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface AvatarActionPurchaseRepository extends JpaRepository<AvatarActionPurchase, UUID> {
-    Optional<AvatarActionPurchase> findByAvatarIdAndActionId(UUID avatarId, UUID actionId);
+public interface AvatarActionPurchaseRepository extends JpaRepository<AvatarActionPurchase, UUID>, PurchaseCountUpsert {
+
+    @Query("select p.action.id as actionId, p.purchaseCount as purchaseCount from AvatarActionPurchase p " +
+            "where p.avatar.id = :avatarId")
+    List<PurchaseCount> findPurchaseCountsByAvatarId(@Param("avatarId") UUID avatarId);
+
+    interface PurchaseCount {
+        UUID getActionId();
+
+        Integer getPurchaseCount();
+    }
 }
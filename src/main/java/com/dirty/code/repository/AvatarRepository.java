@@ -1,11 +1,16 @@
 package com.dirty.code.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.dirty.code.repository.model.Avatar;
@@ -15,11 +20,83 @@ import com.dirty.code.repository.model.DirtyUser;
 public interface AvatarRepository extends JpaRepository<Avatar, UUID> {
     boolean existsByNameAndActiveTrue(String name);
 
+    /**
+     * Loads the avatar for a mutation, with the regeneration earned since its last write applied.
+     */
+    default Optional<Avatar> findForUpdate(UUID id) {
+        Optional<Avatar> avatar = findById(id);
+        avatar.ifPresent(a -> a.applyRegeneration(LocalDateTime.now()));
+        return avatar;
+    }
+
     Optional<Avatar> findByUserAndActiveTrue(DirtyUser user);
 
+    @Query("select a.name from Avatar a where a.id = :id and a.active = true")
+    Optional<String> findAvatarNameById(@Param("id") UUID id);
+
     List<Avatar> findTop10ByActiveTrueOrderByLevelDescExperienceDesc();
 
-    List<Avatar> findByActiveTrue();
+    List<Avatar> findByActiveTrueOrderByIdAsc(Limit limit);
+
+    @Query("select a.id as id, a.name as name from Avatar a join a.user u " +
+            "where a.active = true and u.firebaseUid like concat(:uidPrefix, '%') order by a.id")
+    List<ChatIdentity> findActiveChatIdentitiesByUidPrefix(@Param("uidPrefix") String uidPrefix, Limit limit);
+
+    @Modifying
+    @Query("update Avatar a set a.temporaryStrength = 0, a.temporaryIntelligence = 0, a.temporaryCharisma = 0, " +
+            "a.temporaryStealth = 0, a.statusCooldown = null, a.updatedAt = :now, a.version = a.version + 1 " +
+            "where a.active = true and a.statusCooldown <= :now")
+    int clearExpiredTemporaryStats(@Param("now") LocalDateTime now);
+
+    @Query("select a.id from Avatar a where a.id in :ids and a.statusCooldown <= :now")
+    List<UUID> findIdsWithExpiredStatusCooldown(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Avatar a set a.temporaryStrength = 0, a.temporaryIntelligence = 0, a.temporaryCharisma = 0, " +
+            "a.temporaryStealth = 0, a.statusCooldown = null, a.updatedAt = :now, a.version = a.version + 1 " +
+            "where a.id in :ids and a.statusCooldown <= :now")
+    int clearExpiredTemporaryStats(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Query("select a.id from Avatar a where a.id in :ids and a.timeout <= :now")
+    List<UUID> findIdsWithExpiredTimeout(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Releases every avatar whose jail/hospital timeout is over: jail resets the wanted level, hospital
+     * leaves the avatar with 1 HP. Regeneration restarts from the end of the timeout.
+     */
+    @Modifying
+    @Query("update Avatar a set " +
+            "a.wantedLevel = case when a.timeoutType = com.dirty.code.repository.model.TimeoutType.JAIL then 0 else a.wantedLevel end, " +
+            "a.life = case when a.timeoutType = com.dirty.code.repository.model.TimeoutType.HOSPITAL then 1 else a.life end, " +
+            "a.lastRegenAt = case when a.lastRegenAt < a.timeout then a.timeout else a.lastRegenAt end, " +
+            "a.timeout = null, a.timeoutType = null, a.timeoutCost = 0, a.updatedAt = :now, a.version = a.version + 1 " +
+            "where a.timeout <= :now")
+    int clearExpiredTimeouts(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Avatar a set " +
+            "a.wantedLevel = case when a.timeoutType = com.dirty.code.repository.model.TimeoutType.JAIL then 0 else a.wantedLevel end, " +
+            "a.life = case when a.timeoutType = com.dirty.code.repository.model.TimeoutType.HOSPITAL then 1 else a.life end, " +
+            "a.lastRegenAt = case when a.lastRegenAt < a.timeout then a.timeout else a.lastRegenAt end, " +
+            "a.timeout = null, a.timeoutType = null, a.timeoutCost = 0, a.updatedAt = :now, a.version = a.version + 1 " +
+            "where a.id in :ids and a.timeout <= :now")
+    int clearExpiredTimeouts(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Query("select a.id as id, a.timeout as timeout, a.statusCooldown as statusCooldown from Avatar a " +
+            "where a.timeout > :now or a.statusCooldown > :now")
+    List<PendingExpiration> findPendingExpirations(@Param("now") LocalDateTime now);
+
+    interface PendingExpiration {
+        UUID getId();
+
+        LocalDateTime getTimeout();
+
+        LocalDateTime getStatusCooldown();
+    }
+
+    interface ChatIdentity {
+        UUID getId();
 
-    List<Avatar> findByActiveTrueAndStatusCooldownIsNotNullAndStatusCooldownLessThanEqual(LocalDateTime now);
+        String getName();
+    }
 }
@@ -0,0 +1,13 @@
+package com.dirty.code.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface PurchaseCountUpsert {
+
+    /**
+     * Inserts the first purchase of the action by the avatar, or bumps the counter of the existing row,
+     * in a single statement relying on the {@code unique_avatar_action} constraint.
+     */
+    void incrementPurchaseCount(UUID avatarId, UUID actionId, LocalDateTime now);
+}
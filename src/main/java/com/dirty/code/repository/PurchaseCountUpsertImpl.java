@@ -0,0 +1,53 @@
+package com.dirty.code.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * PostgreSQL gets {@code INSERT ... ON CONFLICT}, which stays atomic under concurrent first purchases.
+ * H2 only understands {@code MERGE}, which is enough for the local and test databases.
+ */
+class PurchaseCountUpsertImpl implements PurchaseCountUpsert {
+
+    private static final String ON_CONFLICT_UPSERT = """
+            insert into avatar_action_purchase (id, avatar_id, action_id, purchase_count, created_at, updated_at)
+            values (:id, :avatarId, :actionId, 1, :now, :now)
+            on conflict on constraint unique_avatar_action
+            do update set purchase_count = avatar_action_purchase.purchase_count + 1, updated_at = excluded.updated_at
+            """;
+
+    private static final String MERGE_UPSERT = """
+            merge into avatar_action_purchase p
+            using (values (cast(:avatarId as uuid), cast(:actionId as uuid))) as v(avatar_id, action_id)
+            on p.avatar_id = v.avatar_id and p.action_id = v.action_id
+            when matched then update set purchase_count = p.purchase_count + 1, updated_at = :now
+            when not matched then insert (id, avatar_id, action_id, purchase_count, created_at, updated_at)
+            values (:id, v.avatar_id, v.action_id, 1, :now, :now)
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void incrementPurchaseCount(UUID avatarId, UUID actionId, LocalDateTime now) {
+        entityManager.createNativeQuery(dialect() instanceof H2Dialect ? MERGE_UPSERT : ON_CONFLICT_UPSERT)
+                .setParameter("id", UUID.randomUUID())
+                .setParameter("avatarId", avatarId)
+                .setParameter("actionId", actionId)
+                .setParameter("now", now)
+                .executeUpdate();
+    }
+
+    private Dialect dialect() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+    }
+}
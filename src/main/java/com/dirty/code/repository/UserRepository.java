@@ -2,6 +2,8 @@ package com.dirty.code.repository;
 
 import com.dirty.code.repository.model.DirtyUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,5 +12,15 @@ import java.util.UUID;
 @Repository
 public interface UserRepository extends JpaRepository<DirtyUser, UUID> {
     Optional<DirtyUser> findByFirebaseUid(String uid);
-    boolean existsByFirebaseUid(String uid);
+
+    @Query("select u.id as userId, a.id as activeAvatarId from DirtyUser u " +
+            "left join Avatar a on a.userId = u.id and a.active = true " +
+            "where u.firebaseUid = :uid")
+    Optional<PrincipalIds> findPrincipalByFirebaseUid(@Param("uid") String uid);
+
+    interface PrincipalIds {
+        UUID getUserId();
+
+        UUID getActiveAvatarId();
+    }
 }
@@ -2,13 +2,14 @@ package com.dirty.code.repository.model;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import com.dirty.code.utils.ExperienceTable;
 import com.dirty.code.utils.GameFormulas;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -20,8 +21,9 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -98,11 +100,8 @@ public class Avatar extends BaseModel {
     @Column(name = "status_cooldown")
     private LocalDateTime statusCooldown;
 
-    @OneToOne(mappedBy = "avatar", cascade = CascadeType.ALL)
-    private AvatarSpecialAction specialAction;
-
     public void checkAndResetTemporaryStats() {
-        if (statusCooldown != null && LocalDateTime.now().isAfter(statusCooldown)) {
+        if (temporaryStatsExpired()) {
             this.temporaryStrength = 0;
             this.temporaryIntelligence = 0;
             this.temporaryCharisma = 0;
@@ -111,25 +110,33 @@ public class Avatar extends BaseModel {
         }
     }
 
+    /**
+     * Whether the status cooldown has passed. Expired temporary stats no longer count even before
+     * they are cleared, so read paths can ignore them without writing.
+     */
+    public boolean temporaryStatsExpired() {
+        return statusCooldown != null && LocalDateTime.now().isAfter(statusCooldown);
+    }
 
     public int getEffectiveStrength() {
-        checkAndResetTemporaryStats();
-        return (strength != null ? strength : 0) + (temporaryStrength != null ? temporaryStrength : 0);
+        return effective(strength, temporaryStrength);
     }
 
     public int getEffectiveIntelligence() {
-        checkAndResetTemporaryStats();
-        return (intelligence != null ? intelligence : 0) + (temporaryIntelligence != null ? temporaryIntelligence : 0);
+        return effective(intelligence, temporaryIntelligence);
     }
 
     public int getEffectiveCharisma() {
-        checkAndResetTemporaryStats();
-        return (charisma != null ? charisma : 0) + (temporaryCharisma != null ? temporaryCharisma : 0);
+        return effective(charisma, temporaryCharisma);
     }
 
     public int getEffectiveStealth() {
-        checkAndResetTemporaryStats();
-        return (stealth != null ? stealth : 0) + (temporaryStealth != null ? temporaryStealth : 0);
+        return effective(stealth, temporaryStealth);
+    }
+
+    private int effective(Integer base, Integer temporary) {
+        int value = base != null ? base : 0;
+        return temporary != null && !temporaryStatsExpired() ? value + temporary : value;
     }
 
     @Builder.Default
@@ -156,6 +163,63 @@ public class Avatar extends BaseModel {
     @Column(name = "user_id", nullable = false)
     private UUID userId;
 
+    @Version
+    private Long version;
+
+    @Column(name = "last_regen_at")
+    private LocalDateTime lastRegenAt;
+
+    @PrePersist
+    void initializeRegenerationClock() {
+        if (lastRegenAt == null) {
+            lastRegenAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Applies the passive stamina/life regeneration earned since {@link #lastRegenAt}. Only called by
+     * write paths, right before a mutation; reads use {@link #regeneratedAt} and leave the entity untouched.
+     */
+    public void applyRegeneration(LocalDateTime now) {
+        Regenerated regenerated = regeneratedAt(now);
+        stamina = regenerated.stamina();
+        life = regenerated.life();
+        lastRegenAt = regenerated.lastRegenAt();
+    }
+
+    /**
+     * Stamina and life after the passive regeneration earned since {@link #lastRegenAt}: one point per
+     * full minute, capped at the max. Minutes spent in an active timeout do not count, and the
+     * remainder of an incomplete minute is kept for the next call.
+     */
+    public Regenerated regeneratedAt(LocalDateTime now) {
+        int currentStamina = stamina != null ? stamina : 0;
+        int currentLife = life != null ? life : 0;
+        if (lastRegenAt == null) {
+            return new Regenerated(currentStamina, currentLife, now);
+        }
+
+        LocalDateTime regenStart = lastRegenAt;
+        if (timeout != null && timeout.isAfter(regenStart)) {
+            if (timeout.isAfter(now)) {
+                return new Regenerated(currentStamina, currentLife, now);
+            }
+            regenStart = timeout;
+        }
+
+        long minutes = Duration.between(regenStart, now).toMinutes();
+        if (minutes <= 0) {
+            return new Regenerated(currentStamina, currentLife, lastRegenAt);
+        }
+
+        if (Boolean.TRUE.equals(active)) {
+            currentStamina = GameFormulas.regenerate(currentStamina, minutes,
+                    GameFormulas.STAMINA_REGEN_PER_MINUTE, GameFormulas.MAX_STAMINA);
+            currentLife = GameFormulas.regenerate(currentLife, minutes,
+                    GameFormulas.LIFE_REGEN_PER_MINUTE, GameFormulas.MAX_LIFE);
+        }
+        return new Regenerated(currentStamina, currentLife, regenStart.plusMinutes(minutes));
+    }
 
     public void increaseExperience(BigInteger experienceToAdd) {
         if (experienceToAdd == null || experienceToAdd.compareTo(BigInteger.ZERO) <= 0) {
@@ -169,11 +233,21 @@ public class Avatar extends BaseModel {
         this.totalExperience = this.totalExperience.add(experienceToAdd);
         this.experience = this.experience.add(experienceToAdd);
 
-        while (this.experience.compareTo(this.nextLevelExperience) >= 0) {
-            this.experience = this.experience.subtract(this.nextLevelExperience);
-            this.level++;
-            this.availablePoints++;
-            this.nextLevelExperience = GameFormulas.requiredExperienceForLevel(this.level + 1);
+        if (this.experience.compareTo(this.nextLevelExperience) < 0) {
+            return;
         }
+
+        // The stored requirement pays for the first level; any surplus is resolved against the table at once.
+        BigInteger surplus = this.experience.subtract(this.nextLevelExperience);
+        int firstLevel = this.level + 1;
+        int reachedLevel = ExperienceTable.highestLevelReached(firstLevel, surplus);
+
+        this.experience = surplus.subtract(ExperienceTable.experienceBetween(firstLevel, reachedLevel));
+        this.availablePoints += reachedLevel - this.level;
+        this.level = reachedLevel;
+        this.nextLevelExperience = GameFormulas.requiredExperienceForLevel(this.level + 1);
+    }
+
+    public record Regenerated(int stamina, int life, LocalDateTime lastRegenAt) {
     }
 }
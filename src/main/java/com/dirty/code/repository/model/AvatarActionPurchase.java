@@ -7,7 +7,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.EqualsAndHashCode;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 @Data
@@ -34,8 +33,4 @@ public class AvatarActionPurchase extends BaseModel {
     @Column(name = "purchase_count", nullable = false)
     @Builder.Default
     private Integer purchaseCount = 0;
-
-    @Column(name = "current_price", nullable = false)
-    @Builder.Default
-    private BigDecimal currentPrice = BigDecimal.ZERO;
 }
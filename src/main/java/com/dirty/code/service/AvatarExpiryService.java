@@ -0,0 +1,190 @@
+package com.dirty.code.service;
+
+import com.dirty.code.dto.AvatarExpirationDTO;
+import com.dirty.code.repository.AvatarRepository;
+import com.dirty.code.repository.model.Avatar;
+import com.dirty.code.utils.TimingWheel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clears jail/hospital timeouts and temporary-stat cooldowns at their deadline.
+ * <p>
+ * Deadlines are kept in an in-memory {@link TimingWheel}. It is loaded from the database at startup
+ * and fed whenever a deadline is set. Every tick, the due avatars are cleared with small set-based
+ * updates. Each update also checks the deadline in the database, so a stale or rolled-back entry
+ * changes nothing. The owner is then notified on {@code /topic/avatars/{id}/expirations}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AvatarExpiryService {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 64;
+    private static final int BATCH_SIZE = 100;
+
+    public enum ExpiryKind {
+        TIMEOUT,
+        STATUS_COOLDOWN
+    }
+
+    private record Expiry(UUID avatarId, ExpiryKind kind) {
+    }
+
+    private final AvatarRepository avatarRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final TimingWheel<Expiry> wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+    private final Map<Expiry, LocalDateTime> deadlines = new ConcurrentHashMap<>();
+    private final List<Expiry> overdue = new ArrayList<>();
+
+    /**
+     * Registers the current timeout and status cooldown of the avatar. Inside a transaction the
+     * deadlines are registered only after the commit.
+     */
+    public void track(Avatar avatar) {
+        UUID avatarId = avatar.getId();
+        LocalDateTime timeout = avatar.getTimeout();
+        LocalDateTime statusCooldown = avatar.getStatusCooldown();
+        if (avatarId == null || (timeout == null && statusCooldown == null)) {
+            return;
+        }
+
+        Runnable register = () -> {
+            if (timeout != null) {
+                schedule(new Expiry(avatarId, ExpiryKind.TIMEOUT), timeout);
+            }
+            if (statusCooldown != null) {
+                schedule(new Expiry(avatarId, ExpiryKind.STATUS_COOLDOWN), statusCooldown);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    register.run();
+                }
+            });
+        } else {
+            register.run();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPendingExpirations() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Integer clearedTimeouts = transactionTemplate.execute(_ -> avatarRepository.clearExpiredTimeouts(now));
+        Integer clearedCooldowns = transactionTemplate.execute(_ -> avatarRepository.clearExpiredTemporaryStats(now));
+        log.info("Cleared {} timeouts and {} status cooldowns that expired while the server was down.",
+                clearedTimeouts, clearedCooldowns);
+
+        List<AvatarRepository.PendingExpiration> pending = avatarRepository.findPendingExpirations(now);
+        for (AvatarRepository.PendingExpiration expiration : pending) {
+            if (expiration.getTimeout() != null && expiration.getTimeout().isAfter(now)) {
+                schedule(new Expiry(expiration.getId(), ExpiryKind.TIMEOUT), expiration.getTimeout());
+            }
+            if (expiration.getStatusCooldown() != null && expiration.getStatusCooldown().isAfter(now)) {
+                schedule(new Expiry(expiration.getId(), ExpiryKind.STATUS_COOLDOWN), expiration.getStatusCooldown());
+            }
+        }
+        log.info("Loaded {} pending avatar expirations.", pending.size());
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void tick() {
+        Map<ExpiryKind, List<UUID>> due = new EnumMap<>(ExpiryKind.class);
+        synchronized (wheel) {
+            overdue.forEach(expiry -> collect(due, expiry));
+            overdue.clear();
+            wheel.advance(System.currentTimeMillis(), expiry -> collect(due, expiry));
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        due.forEach((kind, avatarIds) -> {
+            for (int from = 0; from < avatarIds.size(); from += BATCH_SIZE) {
+                List<UUID> batch = avatarIds.subList(from, Math.min(from + BATCH_SIZE, avatarIds.size()));
+                try {
+                    expireBatch(kind, batch, now);
+                } catch (RuntimeException e) {
+                    log.error("Failed to clear {} for {} avatars", kind, batch.size(), e);
+                }
+            }
+        });
+    }
+
+    private void schedule(Expiry expiry, LocalDateTime deadline) {
+        deadlines.put(expiry, deadline);
+        long deadlineMillis = deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (wheel) {
+            if (!wheel.schedule(expiry, deadlineMillis)) {
+                overdue.add(expiry);
+            }
+        }
+    }
+
+    private void collect(Map<ExpiryKind, List<UUID>> due, Expiry expiry) {
+        LocalDateTime deadline = deadlines.get(expiry);
+        if (deadline == null || LocalDateTime.now().isBefore(deadline)) {
+            // superseded by a later deadline, which has its own entry in the wheel
+            return;
+        }
+        if (deadlines.remove(expiry, deadline)) {
+            due.computeIfAbsent(expiry.kind(), _ -> new ArrayList<>()).add(expiry.avatarId());
+        }
+    }
+
+    private void expireBatch(ExpiryKind kind, List<UUID> avatarIds, LocalDateTime now) {
+        List<UUID> expired = transactionTemplate.execute(_ -> switch (kind) {
+            case TIMEOUT -> {
+                List<UUID> ids = avatarRepository.findIdsWithExpiredTimeout(avatarIds, now);
+                if (!ids.isEmpty()) {
+                    avatarRepository.clearExpiredTimeouts(ids, now);
+                }
+                yield ids;
+            }
+            case STATUS_COOLDOWN -> {
+                List<UUID> ids = avatarRepository.findIdsWithExpiredStatusCooldown(avatarIds, now);
+                if (!ids.isEmpty()) {
+                    avatarRepository.clearExpiredTemporaryStats(ids, now);
+                }
+                yield ids;
+            }
+        });
+        if (expired == null || expired.isEmpty()) {
+            return;
+        }
+
+        log.info("Cleared {} for {} avatars.", kind, expired.size());
+        for (UUID avatarId : expired) {
+            messagingTemplate.convertAndSend("/topic/avatars/" + avatarId + "/expirations", AvatarExpirationDTO.builder()
+                    .avatarId(avatarId)
+                    .kind(kind.name())
+                    .expiredAt(now)
+                    .build());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.dirty.code.service;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -12,6 +13,7 @@ import com.dirty.code.utils.GameFormulas;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.dirty.code.config.security.PlayerPrincipal;
 import com.dirty.code.controller.AvatarController;
 import com.dirty.code.dto.AvatarCreateRequestDTO;
 import com.dirty.code.dto.AvatarResponseDTO;
@@ -35,6 +37,8 @@ public class AvatarService implements AvatarController {
     private final AvatarRepository avatarRepository;
     private final UserRepository userRepository;
     private final AvatarTimeoutService timeoutService;
+    private final AvatarWriteLane avatarWriteLane;
+    private final PlayerPrincipalResolver principalResolver;
 
     @Override
     @Transactional(readOnly = true)
@@ -47,11 +51,10 @@ public class AvatarService implements AvatarController {
 
     @Override
     @Transactional
-    public AvatarResponseDTO createAvatar(String uid, AvatarCreateRequestDTO request) {
-        log.info("Creating avatar for user UID: {}", uid);
+    public AvatarResponseDTO createAvatar(PlayerPrincipal player, AvatarCreateRequestDTO request) {
+        log.info("Creating avatar for user UID: {}", player.uid());
 
-        DirtyUser user = userRepository.findByFirebaseUid(uid)
-                .orElseThrow(() -> new ResourceNotFoundException("DirtyUser not found with UID: " + uid));
+        DirtyUser user = userRepository.getReferenceById(player.userId());
 
         Optional<Avatar> existingAvatar = avatarRepository.findByUserAndActiveTrue(user);
         if (existingAvatar.isPresent()) {
@@ -86,21 +89,23 @@ public class AvatarService implements AvatarController {
                 .build();
 
         Avatar savedAvatar = avatarRepository.save(avatar);
+        principalResolver.invalidate(player.uid());
         log.info("Avatar created with ID: {}", savedAvatar.getId());
 
         return AvatarResponseDTO.fromAvatar(savedAvatar);
     }
 
     @Override
-    @Transactional
-    public AvatarResponseDTO updateAvatar(String uid, AvatarUpdateRequestDTO request) {
-        log.info("Updating avatar for user UID: {}", uid);
+    public AvatarResponseDTO updateAvatar(PlayerPrincipal player, AvatarUpdateRequestDTO request) {
+        log.info("Updating avatar for user UID: {}", player.uid());
 
-        DirtyUser user = userRepository.findByFirebaseUid(uid)
-                .orElseThrow(() -> new ResourceNotFoundException("DirtyUser not found with UID: " + uid));
+        UUID avatarId = player.requireActiveAvatarId();
+        return avatarWriteLane.execute(avatarId, "updateAvatar", () -> updateAvatar(avatarId, request));
+    }
 
-        Avatar avatar = avatarRepository.findByUserAndActiveTrue(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Active avatar not found for user UID: " + uid));
+    private AvatarResponseDTO updateAvatar(UUID avatarId, AvatarUpdateRequestDTO request) {
+        Avatar avatar = avatarRepository.findForUpdate(avatarId)
+                .orElseThrow(() -> new ResourceNotFoundException("Avatar not found with ID: " + avatarId));
 
         // Use current values if request values are null
         int currentInt = avatar.getIntelligence();
@@ -160,15 +165,16 @@ public class AvatarService implements AvatarController {
     }
 
     @Override
-    @Transactional
-    public AvatarResponseDTO increaseAttribute(String uid, Attribute attribute) {
-        log.info("Increasing attribute {} for user UID: {}", attribute, uid);
+    public AvatarResponseDTO increaseAttribute(PlayerPrincipal player, Attribute attribute) {
+        log.info("Increasing attribute {} for user UID: {}", attribute, player.uid());
 
-        DirtyUser user = userRepository.findByFirebaseUid(uid)
-                .orElseThrow(() -> new ResourceNotFoundException("DirtyUser not found with UID: " + uid));
+        UUID avatarId = player.requireActiveAvatarId();
+        return avatarWriteLane.execute(avatarId, "increaseAttribute", () -> increaseAttribute(avatarId, attribute));
+    }
 
-        Avatar avatar = avatarRepository.findByUserAndActiveTrue(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Active avatar not found for user UID: " + uid));
+    private AvatarResponseDTO increaseAttribute(UUID avatarId, Attribute attribute) {
+        Avatar avatar = avatarRepository.findForUpdate(avatarId)
+                .orElseThrow(() -> new ResourceNotFoundException("Avatar not found with ID: " + avatarId));
 
         if (avatar.getAvailablePoints() <= 0) {
             throw new BusinessException("No available points to distribute.");
@@ -210,9 +216,18 @@ public class AvatarService implements AvatarController {
      * restoring the avatar to normal state (HP=100, stamina=100).
      *
      * @param avatar The avatar to check and potentially restore
+     * @return the up-to-date avatar
      */
-    @Transactional
-    public void clearExpiredTimeout(Avatar avatar) {
-        timeoutService.processExpiredTimeoutSilently(avatar);
+    public Avatar clearExpiredTimeout(Avatar avatar) {
+        if (avatar.getTimeout() == null || !LocalDateTime.now().isAfter(avatar.getTimeout())) {
+            return avatar;
+        }
+
+        return avatarWriteLane.execute(avatar.getId(), "clearExpiredTimeout", () -> {
+            Avatar current = avatarRepository.findForUpdate(avatar.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Avatar not found with ID: " + avatar.getId()));
+            timeoutService.processExpiredTimeoutSilently(current);
+            return current;
+        });
     }
 }
@@ -18,6 +18,7 @@ import java.time.LocalDateTime;
 public class AvatarTimeoutService {
 
     private final AvatarRepository avatarRepository;
+    private final AvatarExpiryService expiryService;
 
     @Transactional
     public void validateAndHandleTimeout(Avatar avatar) {
@@ -54,6 +55,7 @@ public class AvatarTimeoutService {
             avatar.setTimeout(LocalDateTime.now().plusMinutes(5L * multiplierByLevel));
             avatar.setTimeoutType(TimeoutType.HOSPITAL);
             avatar.setTimeoutCost(BigDecimal.valueOf((500L * multiplierByLevel) * multiplier));
+            expiryService.track(avatar);
             log.info("Avatar {} HP reached 0. Sent to hospital until {}.", avatar.getName(), avatar.getTimeout());
             return true;
         }
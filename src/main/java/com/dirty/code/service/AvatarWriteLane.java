@@ -0,0 +1,108 @@
+package com.dirty.code.service;
+
+import com.dirty.code.exception.AvatarBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes every mutation of the same avatar inside this JVM, so concurrent requests can no longer
+ * load the same state and overwrite each other on save. Mutations of different avatars never wait on
+ * each other: each avatar gets its own lane, created on demand and dropped when it becomes idle.
+ * <p>
+ * Each mutation runs in its own transaction, committed before the next one in the lane starts. A lane
+ * accepts at most {@link #MAX_PENDING_PER_AVATAR} mutations at once, and further ones are rejected
+ * with {@link AvatarBusyException} instead of piling up request threads.
+ * <p>
+ * Writers outside the lane (other instances, scheduled jobs) are detected through the avatar version.
+ * On a conflict the whole mutation runs again in a new transaction, so it reloads the avatar and
+ * recomputes the game logic on fresh state, up to {@link #MAX_ATTEMPTS} times.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AvatarWriteLane {
+
+    private static final int MAX_PENDING_PER_AVATAR = 8;
+    private static final long MAX_WAIT_SECONDS = 10;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the mutation in the lane of the avatar. The mutation must load the avatar itself, since it
+     * can be executed more than once.
+     *
+     * @param operation name used to tag the metrics of this mutation
+     */
+    public <T> T execute(UUID avatarId, String operation, Supplier<T> mutation) {
+        Lane lane = enter(avatarId);
+        try {
+            if (!lane.lock.tryLock(MAX_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Timed out waiting for the write lane of avatar {}", avatarId);
+                throw new AvatarBusyException("Avatar is busy processing other requests. Try again in a moment.");
+            }
+            try {
+                return executeWithRetry(avatarId, operation, mutation);
+            } finally {
+                lane.lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AvatarBusyException("Request interrupted while waiting for the avatar to be available.");
+        } finally {
+            leave(avatarId);
+        }
+    }
+
+    private <T> T executeWithRetry(UUID avatarId, String operation, Supplier<T> mutation) {
+        for (int attempt = 1; ; attempt++) {
+            meterRegistry.counter("avatar.write.attempts", "operation", operation).increment();
+            try {
+                return transactionTemplate.execute(_ -> mutation.get());
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("avatar.write.conflicts", "operation", operation).increment();
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.warn("Avatar {} still conflicting after {} attempts of {}. Giving up.", avatarId, attempt, operation);
+                    meterRegistry.counter("avatar.write.exhausted", "operation", operation).increment();
+                    throw new AvatarBusyException("Avatar was modified concurrently. Try again in a moment.");
+                }
+                log.info("Concurrent update of avatar {} during {} (attempt {}). Retrying on fresh state.", avatarId, operation, attempt);
+                meterRegistry.counter("avatar.write.retries", "operation", operation).increment();
+            }
+        }
+    }
+
+    private Lane enter(UUID avatarId) {
+        return lanes.compute(avatarId, (_, lane) -> {
+            Lane current = lane != null ? lane : new Lane();
+            if (current.pending >= MAX_PENDING_PER_AVATAR) {
+                log.warn("Write lane of avatar {} is full ({} pending). Rejecting request.", avatarId, current.pending);
+                throw new AvatarBusyException("Too many pending requests for this avatar. Try again in a moment.");
+            }
+            current.pending++;
+            return current;
+        });
+    }
+
+    private void leave(UUID avatarId) {
+        lanes.computeIfPresent(avatarId, (_, lane) -> --lane.pending == 0 ? null : lane);
+    }
+
+    private static final class Lane {
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private int pending;
+    }
+}
@@ -0,0 +1,279 @@
+package com.dirty.code.service;
+
+import com.dirty.code.repository.model.Avatar;
+import com.dirty.code.repository.model.GameAction;
+import com.dirty.code.utils.GameFormulas;
+import com.dirty.code.utils.GameNumbers;
+import com.dirty.code.utils.GameRandom;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Executes {@code times} repetitions of an action in one step instead of looping over
+ * {@link GameActionProcessor#processActionEffects(Avatar, GameAction, Map)}.
+ * <p>
+ * Stamina, money budget, fixed rewards and temporary stats are computed in closed form, and the
+ * first failure is sampled from the geometric distribution of the failure chance. Money and XP
+ * variations are drawn run by run up to {@link #EXACT_VARIATION_RUNS} successes and from the normal
+ * approximation of their sum above that. HP variations stay run by run because life is clamped on
+ * every run; that walk is bounded by the number of runs the caller allows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkActionExecutor {
+
+    /**
+     * Successes up to which money and XP variations are drawn one by one. The sum of more runs is close
+     * enough to normal to be drawn in one step.
+     */
+    static final long EXACT_VARIATION_RUNS = 32;
+
+    private final GameActionProcessor actionProcessor;
+    private final AvatarTimeoutService timeoutService;
+
+    /**
+     * Whether the outcome of the action can be computed in one step: special actions change prices
+     * and state on every run, a varied cost makes the money budget path dependent, and temporary
+     * stats would change the failure chance between runs.
+     */
+    public boolean supports(GameAction action, Map<UUID, Integer> purchaseCounts) {
+        if (action.getSpecialAction() != null) {
+            return false;
+        }
+
+        BigDecimal price = actionProcessor.calculateDynamicPrice(purchaseCounts, action);
+        if (price != null && price.signum() < 0 && hasVariation(action.getMoneyVariation())) {
+            return false;
+        }
+
+        return GameActionProcessor.isRiskFree(action.getType()) || !hasTemporaryStats(action);
+    }
+
+    /**
+     * Applies up to {@code times} runs of the action to the avatar. The caller must have validated
+     * that the first run is affordable.
+     */
+    public BulkResult execute(Avatar avatar, GameAction action, Map<UUID, Integer> purchaseCounts, int times) {
+        BigDecimal price = actionProcessor.calculateDynamicPrice(purchaseCounts, action);
+        int staminaDelta = action.getStamina() != null ? action.getStamina() : 0;
+        int initialStamina = avatar.getStamina();
+        int staminaAfterFirstRun = GameFormulas.clampStamina(initialStamina + staminaDelta);
+
+        long maxRuns = times;
+        if (staminaDelta < 0) {
+            maxRuns = Math.min(maxRuns, 1 + staminaAfterFirstRun / -staminaDelta);
+        }
+        if (price != null && price.signum() < 0) {
+            BigDecimal affordable = avatar.getMoney().divideToIntegralValue(price.abs());
+            maxRuns = Math.min(maxRuns, affordable.min(BigDecimal.valueOf(Integer.MAX_VALUE)).longValue());
+        }
+        maxRuns = Math.max(1, maxRuns);
+
+        double failureChance = actionProcessor.calculateFailureChance(avatar, action);
+        long firstFailure = GameFormulas.firstFailureIndex(failureChance, maxRuns);
+        long runCap = Math.min(maxRuns, firstFailure);
+
+        long hospitalizedAt = simulateLife(avatar, action, runCap);
+        boolean hospitalized = hospitalizedAt <= runCap;
+        long runs = hospitalized ? hospitalizedAt : runCap;
+        boolean failed = !hospitalized && firstFailure <= maxRuns;
+        long successes = hospitalized || failed ? runs - 1 : runs;
+
+        long staminaAfterRuns = staminaAfterFirstRun + (runs - 1) * staminaDelta;
+        avatar.setStamina((int) Math.max(0, Math.min(GameFormulas.MAX_STAMINA, staminaAfterRuns)));
+
+        if (successes > 0) {
+            applySuccesses(avatar, action, price, successes);
+        }
+
+        if (hospitalized) {
+            timeoutService.checkAndHandleHospitalization(avatar, 1);
+            log.info("Avatar {} sent to hospital after {} runs of action {}", avatar.getName(), runs, action.getTitle());
+        } else if (failed) {
+            actionProcessor.handleFailure(avatar, action, failureChance);
+        }
+
+        log.info("Avatar {} executed action {} {} times in bulk (requested: {}, success: {})",
+                avatar.getName(), action.getTitle(), runs, times, !hospitalized && !failed);
+        return new BulkResult((int) runs, !hospitalized && !failed);
+    }
+
+    /**
+     * Plays the HP changes of up to {@code runCap} runs, leaving the final life on the avatar.
+     * Returns the run in which the avatar was hospitalized, or {@code runCap + 1}.
+     */
+    private long simulateLife(Avatar avatar, GameAction action, long runCap) {
+        Integer hp = action.getHp();
+        Double hpVariation = action.getHpVariation();
+        int life = avatar.getLife();
+
+        long run = 0;
+        while (run < runCap) {
+            run++;
+            if (hp != null) {
+                life = GameFormulas.clampLife(life + GameFormulas.calculateHpVariation(hp, hpVariation));
+            }
+            if (life <= 0) {
+                avatar.setLife(life);
+                return run;
+            }
+
+            long remainingRuns = runCap - run;
+            if (remainingRuns == 0 || hp == null || hp == 0) {
+                break;
+            }
+            if (!hasVariation(hpVariation)) {
+                if (hp < 0 && remainingRuns >= (life + (-hp) - 1) / -hp) {
+                    avatar.setLife(0);
+                    return run + (life + (-hp) - 1) / -hp;
+                }
+                life = (int) Math.max(0, Math.min(GameFormulas.MAX_LIFE, life + remainingRuns * hp));
+                break;
+            }
+            if (hp > 0 && hpVariation <= 1 && life >= GameFormulas.MAX_LIFE) {
+                break;
+            }
+        }
+
+        avatar.setLife(life);
+        return runCap + 1;
+    }
+
+    private void applySuccesses(Avatar avatar, GameAction action, BigDecimal price, long successes) {
+        if (price != null) {
+            if (hasVariation(action.getMoneyVariation())) {
+                avatar.setMoney(sumMoneyVariations(avatar.getMoney(), price, action.getMoneyVariation(), successes));
+            } else {
+                avatar.setMoney(GameFormulas.clampMoney(avatar.getMoney().add(price.multiply(BigDecimal.valueOf(successes)))));
+            }
+        }
+
+        if (action.getXp() != null) {
+            BigInteger xpToAdd = BigInteger.ZERO;
+            if (hasVariation(action.getXpVariation())) {
+                xpToAdd = sumXpVariations(action.getXp(), action.getXpVariation(), successes);
+            } else if (action.getXp().signum() > 0) {
+                xpToAdd = action.getXp().multiply(BigInteger.valueOf(successes));
+            }
+            avatar.increaseExperience(xpToAdd);
+        }
+
+        actionProcessor.applyTemporaryStats(avatar, action, (int) successes);
+    }
+
+    private static BigDecimal sumMoneyVariations(BigDecimal money, BigDecimal price, Double variation, long runs) {
+        if (runs > EXACT_VARIATION_RUNS) {
+            double priceCents = price.movePointRight(2).doubleValue();
+            double totalCents = sumOfVariations(priceCents, variation, runs, false);
+            return GameFormulas.clampMoney(money.add(BigDecimal.valueOf(Math.round(totalCents)).movePointLeft(2)));
+        }
+
+        long moneyCents = GameNumbers.toCents(money);
+        long priceCents = GameNumbers.toCents(price);
+        if (moneyCents == GameNumbers.NOT_EXACT || priceCents == GameNumbers.NOT_EXACT) {
+            for (long i = 0; i < runs; i++) {
+                money = GameFormulas.clampMoney(money.add(GameFormulas.calculateMoneyVariation(price, variation)));
+            }
+            return money;
+        }
+
+        for (long i = 0; i < runs; i++) {
+            moneyCents = Math.max(0, GameNumbers.addSaturating(moneyCents, GameFormulas.calculateMoneyVariationCents(priceCents, variation)));
+        }
+        return GameNumbers.fromCents(moneyCents);
+    }
+
+    /**
+     * Sums the positive XP of each run in a long, carried into a BigInteger whenever it would overflow.
+     */
+    private static BigInteger sumXpVariations(BigInteger xp, Double variation, long runs) {
+        if (runs > EXACT_VARIATION_RUNS) {
+            double total = sumOfVariations(xp.doubleValue(), variation, runs, true);
+            return new BigDecimal(total).setScale(0, RoundingMode.HALF_UP).toBigInteger();
+        }
+
+        long baseXp = GameNumbers.toLong(xp);
+        BigInteger total = BigInteger.ZERO;
+        long partial = 0;
+
+        for (long i = 0; i < runs; i++) {
+            if (baseXp == GameNumbers.NOT_EXACT) {
+                BigInteger runXp = GameFormulas.calculateXpVariation(xp, variation);
+                if (runXp.signum() > 0) {
+                    total = total.add(runXp);
+                }
+                continue;
+            }
+
+            long runXp = GameFormulas.calculateXpVariation(baseXp, variation);
+            if (runXp > 0) {
+                if (partial > Long.MAX_VALUE - runXp) {
+                    total = total.add(BigInteger.valueOf(partial));
+                    partial = 0;
+                }
+                partial += runXp;
+            }
+        }
+        return partial == 0 ? total : total.add(BigInteger.valueOf(partial));
+    }
+
+    /**
+     * Draws the sum of {@code runs} values of {@code base * (1 + variation * U)}, U uniform in (-1, 1), from
+     * the normal distribution with the same mean and variance, bounded by the smallest and largest possible
+     * sums. With {@code positiveOnly}, negative values count as zero, as for XP.
+     */
+    static double sumOfVariations(double base, double variation, long runs, boolean positiveOnly) {
+        double low = Math.min(base * (1 - variation), base * (1 + variation));
+        double high = Math.max(base * (1 - variation), base * (1 + variation));
+
+        double mean;
+        double meanOfSquares;
+        if (!positiveOnly || low >= 0) {
+            mean = (low + high) / 2;
+            meanOfSquares = (low * low + low * high + high * high) / 3;
+        } else if (high <= 0) {
+            return 0;
+        } else {
+            // Uniform on (low, high) with its negative part folded onto zero
+            mean = high * high / (2 * (high - low));
+            meanOfSquares = high * high * high / (3 * (high - low));
+            low = 0;
+        }
+        double variance = Math.max(0, meanOfSquares - mean * mean);
+
+        double sum = runs * mean + Math.sqrt(runs * variance) * GameRandom.current().nextGaussian();
+        return Math.max(runs * low, Math.min(runs * high, sum));
+    }
+
+    private static boolean hasTemporaryStats(GameAction action) {
+        return isNonZero(action.getTemporaryStrength())
+                || isNonZero(action.getTemporaryIntelligence())
+                || isNonZero(action.getTemporaryCharisma())
+                || isNonZero(action.getTemporaryStealth());
+    }
+
+    private static boolean isNonZero(Integer value) {
+        return value != null && value != 0;
+    }
+
+    private static boolean hasVariation(Double variation) {
+        return variation != null && variation > 0;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BulkResult {
+        private final int timesExecuted;
+        private final boolean success;
+    }
+}
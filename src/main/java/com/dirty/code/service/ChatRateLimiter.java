@@ -0,0 +1,79 @@
+package com.dirty.code.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket per sender: a burst of {@link #CAPACITY} messages, then one more every
+ * {@link #REFILL_INTERVAL}. Buckets are updated atomically per uid. An idle bucket is dropped once it
+ * would be full again, which is the same as not having one, and the number of buckets is capped.
+ */
+@Component
+public class ChatRateLimiter {
+
+    static final int CAPACITY = 3;
+    private static final Duration REFILL_INTERVAL = Duration.ofSeconds(5);
+    static final long MAX_BUCKETS = 100_000;
+
+    private static final long REFILL_NANOS = REFILL_INTERVAL.toNanos();
+    private static final long FULL_REFILL_NANOS = REFILL_NANOS * CAPACITY;
+
+    private final Cache<String, Bucket> buckets = CacheBuilder.newBuilder()
+            .expireAfterAccess(FULL_REFILL_NANOS, TimeUnit.NANOSECONDS)
+            .maximumSize(MAX_BUCKETS)
+            .build();
+
+    /**
+     * Takes a token for the sender if one is available.
+     *
+     * @return 0 if the message may be sent, otherwise how many milliseconds until the next token
+     */
+    public long tryAcquire(String uid) {
+        long now = System.nanoTime();
+        long[] waitNanos = new long[1];
+        buckets.asMap().compute(uid, (_, bucket) -> {
+            Bucket current = bucket == null ? Bucket.full(now) : bucket.refill(now);
+            if (current.tokens() == 0) {
+                waitNanos[0] = current.nextTokenAt() - now;
+                return current;
+            }
+            return current.take();
+        });
+        return waitNanos[0] == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos[0]));
+    }
+
+    public long size() {
+        return buckets.size();
+    }
+
+    /**
+     * @param refilledAt when the last token was added; the next one comes {@link #REFILL_INTERVAL} later
+     */
+    private record Bucket(int tokens, long refilledAt) {
+
+        static Bucket full(long now) {
+            return new Bucket(CAPACITY, now);
+        }
+
+        Bucket refill(long now) {
+            long refills = (now - refilledAt) / REFILL_NANOS;
+            if (refills == 0 || tokens == CAPACITY) {
+                return tokens == CAPACITY ? new Bucket(CAPACITY, now) : this;
+            }
+            int refilled = (int) Math.min(CAPACITY, tokens + refills);
+            return new Bucket(refilled, refilled == CAPACITY ? now : refilledAt + refills * REFILL_NANOS);
+        }
+
+        Bucket take() {
+            return new Bucket(tokens - 1, refilledAt);
+        }
+
+        long nextTokenAt() {
+            return refilledAt + REFILL_NANOS;
+        }
+    }
+}
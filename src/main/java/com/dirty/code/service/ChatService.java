@@ -1,110 +1,94 @@
 package com.dirty.code.service;
 
+import com.dirty.code.config.security.PlayerPrincipal;
 import com.dirty.code.controller.ChatController;
 import com.dirty.code.dto.ChatMessageDTO;
 import com.dirty.code.dto.ChatRequestDTO;
+import com.dirty.code.dto.JsonFrame;
 import com.dirty.code.exception.BusinessException;
 import com.dirty.code.repository.AvatarRepository;
-import com.dirty.code.repository.UserRepository;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.dirty.code.utils.SequencedRingBuffer;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.IOException;
-import java.security.Principal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @Service
 @RestController
-@RequiredArgsConstructor
 public class ChatService implements ChatController {
 
     private static final int MAX_MESSAGES = 2000;
-    private static final long MESSAGE_COOLDOWN_MS = 15000;
-    
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final Duration PLACEHOLDER_NAME_TTL = Duration.ofHours(1);
+    private static final long MAX_PLACEHOLDER_NAMES = 10_000;
+
     private final AvatarRepository avatarRepository;
-    private final UserRepository userRepository;
+    private final ChatRateLimiter rateLimiter;
     private final SimpMessagingTemplate messagingTemplate;
-    private final ResourceLoader resourceLoader;
+    private final PlaceholderNameIndex placeholderNameIndex;
+    private final MeterRegistry meterRegistry;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final List<ChatMessageDTO> messages = Collections.synchronizedList(new ArrayList<>());
-    private final List<String> placeholderNames = new ArrayList<>();
-    private final Map<String, String> userPlaceholderNames = new ConcurrentHashMap<>();
-    private final Map<String, Long> lastMessageTimestamps = new ConcurrentHashMap<>();
-    private final Map<String, Integer> userMessageCounts = new ConcurrentHashMap<>();
-    private String lastMessageAuthorId = null;
-    private final Random random = new Random();
-
-    @PostConstruct
-    public void init() {
-        try {
-            Resource resource = resourceLoader.getResource("classpath:jsons/placeHolderNames.json");
-            JsonNode root = objectMapper.readTree(resource.getInputStream());
-            JsonNode namesNode = root.get("badDeveloperFunnyNames");
-            if (namesNode != null && namesNode.isArray()) {
-                for (JsonNode node : namesNode) {
-                    placeholderNames.add(node.asText());
-                }
-            }
-        } catch (IOException e) {
-            log.error("Failed to load placeholder names", e);
-        }
+    private final SequencedRingBuffer<StoredMessage> messages;
+    private final Cache<String, String> userPlaceholderNames;
+    // Sequences restart with every boot; the epoch tells cursors of this history from older ones
+    private final String epoch = UUID.randomUUID().toString();
+
+    public ChatService(AvatarRepository avatarRepository, ChatRateLimiter rateLimiter,
+                       SimpMessagingTemplate messagingTemplate, PlaceholderNameIndex placeholderNameIndex,
+                       MeterRegistry meterRegistry) {
+        this.avatarRepository = avatarRepository;
+        this.rateLimiter = rateLimiter;
+        this.messagingTemplate = messagingTemplate;
+        this.placeholderNameIndex = placeholderNameIndex;
+        this.meterRegistry = meterRegistry;
+        // Names shown in the history are tracked by the index, so free them as messages leave it
+        this.messages = new SequencedRingBuffer<>(MAX_MESSAGES,
+                evicted -> placeholderNameIndex.leftHistory(evicted.message().getAvatarName()));
+        this.userPlaceholderNames = CacheBuilder.newBuilder()
+                .expireAfterAccess(PLACEHOLDER_NAME_TTL)
+                .maximumSize(MAX_PLACEHOLDER_NAMES)
+                .<String, String>removalListener(removal -> placeholderNameIndex.release(removal.getValue(), removal.getKey()))
+                .build();
     }
 
-
     @Override
-    public void sendMessage(Principal principal, ChatRequestDTO request) {
-        String uid = principal.getName();
-
-        long now = System.currentTimeMillis();
-        Long lastMessageTime = lastMessageTimestamps.get(uid);
-        int currentCount = userMessageCounts.getOrDefault(uid, 0);
-
-        if (lastMessageAuthorId != null && !lastMessageAuthorId.equals(uid)) {
-            currentCount = 0;
-        }
+    public void sendMessage(PlayerPrincipal player, ChatRequestDTO request) {
+        String uid = player.uid();
 
-        if (lastMessageTime != null && (now - lastMessageTime) > 30000) {
-            currentCount = 0;
-        }
-        if (currentCount >= 3) {
-            if (lastMessageTime != null && (now - lastMessageTime) < MESSAGE_COOLDOWN_MS) {
-                long remaining = (MESSAGE_COOLDOWN_MS - (now - lastMessageTime)) / 1000;
-                throw new BusinessException("Aguarde " + remaining + " segundos para enviar outra mensagem.");
-            } else {
-                currentCount = 0;
-            }
+        long waitMillis = rateLimiter.tryAcquire(uid);
+        if (waitMillis > 0) {
+            long remaining = Math.ceilDiv(waitMillis, 1000);
+            throw new BusinessException("Aguarde " + remaining + " segundos para enviar outra mensagem.");
         }
 
         log.info("Sending message from user UID: {}", uid);
         AtomicReference<String> name = new AtomicReference<>();
         AtomicReference<String> avatarId = new AtomicReference<>();
 
-        userRepository.findByFirebaseUid(uid)
-                .flatMap(user -> avatarRepository.findByUserAndActiveTrue(user))
+        Optional.ofNullable(player.activeAvatarId())
+                .flatMap(avatarRepository::findAvatarNameById)
                 .ifPresentOrElse(e -> {
-                            name.set(e.getName());
-                            avatarId.set(e.getId().toString());
-                            userPlaceholderNames.remove(uid);
+                            name.set(e);
+                            avatarId.set(player.activeAvatarId().toString());
+                            userPlaceholderNames.invalidate(uid);
                         },
                         () -> {
-                            name.set(userPlaceholderNames.computeIfAbsent(uid, _ -> getRandomPlaceholderName()));
+                            name.set(userPlaceholderNames.asMap().computeIfAbsent(uid, placeholderNameIndex::allocate));
                             avatarId.set("placeholder-" + uid);
                         });
 
@@ -121,49 +105,97 @@ public class ChatService implements ChatController {
                 .fullDate(fullDate)
                 .build();
 
-        addMessage(chatMessage);
-        
-        int nextCount = currentCount + 1;
-        userMessageCounts.put(uid, nextCount);
-        lastMessageTimestamps.put(uid, now);
-        lastMessageAuthorId = uid;
+        addAndBroadcast(chatMessage);
+    }
 
-        messagingTemplate.convertAndSend("/topic/global-messages", chatMessage);
+    @Override
+    public List<ChatMessageDTO> getMessages(Long after, Long before, Integer limit, String epoch) {
+        return page(after, before, limit, epoch).stream()
+                .map(StoredMessage::message)
+                .toList();
     }
 
     @Override
-    public List<ChatMessageDTO> getInitialMessages() {
-        synchronized (messages) {
-            return new ArrayList<>(messages);
-        }
+    public JsonFrame getInitialMessages(Long lastSeq, String epoch) {
+        List<StoredMessage> history = isCurrent(lastSeq, epoch) ? messages.after(lastSeq, MAX_MESSAGES) : messages.snapshot();
+        return toHistoryFrame(history);
     }
-    
-    private String getRandomPlaceholderName() {
-        if (placeholderNames.isEmpty()) {
-            return "Dev anônimo";
-        }
-        String selectedName = placeholderNames.get(random.nextInt(placeholderNames.size()));
 
-        boolean exists;
-        synchronized (messages) {
-            exists = messages.stream()
-                    .anyMatch(m -> m.getAvatarName().equals(selectedName));
-        }
+    @Override
+    public JsonFrame getHistory(Long after, Long before, Integer limit, String epoch) {
+        return toHistoryFrame(page(after, before, limit, epoch));
+    }
+
+    /**
+     * Stores the message and sends it to the global topic.
+     */
+    public void publish(ChatMessageDTO message) {
+        addAndBroadcast(message);
+    }
 
-        if (exists) {
-            int randomDigits = random.nextInt(900) + 100;
-            return selectedName + "_" + randomDigits;
+    private List<StoredMessage> page(Long after, Long before, Integer limit, String cursorEpoch) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.clamp(limit, 1, MAX_MESSAGES);
+        if (isCurrent(after, cursorEpoch)) {
+            return messages.after(after, pageSize);
         }
+        boolean sameEpoch = epoch.equals(cursorEpoch);
+        return messages.before(before != null && sameEpoch ? before : messages.lastSequence() + 1, pageSize);
+    }
 
-        return selectedName;
+    /**
+     * Whether the cursor points into this history. Sequences restart with the server under a new epoch,
+     * so a cursor of another epoch, or ahead of the last message, is ignored.
+     */
+    private boolean isCurrent(Long cursor, String cursorEpoch) {
+        return cursor != null && epoch.equals(cursorEpoch) && cursor <= messages.lastSequence();
     }
 
-    public void addMessage(ChatMessageDTO message) {
-        synchronized (messages) {
-            if (messages.size() >= MAX_MESSAGES) {
-                messages.removeFirst();
-            }
-            messages.add(message);
+    private JsonFrame toHistoryFrame(List<StoredMessage> history) {
+        JsonFrame frame = JsonFrame.array(history.stream().map(StoredMessage::frame).toList());
+        meterRegistry.summary("chat.frames.sent.bytes", "kind", "history").record(frame.size());
+        return frame;
+    }
+
+    private void broadcast(JsonFrame frame) {
+        meterRegistry.summary("chat.frames.sent.bytes", "kind", "broadcast").record(frame.size());
+        messagingTemplate.convertAndSend("/topic/global-messages", frame);
+    }
+    
+    /**
+     * Stores the message with the next sequence number, serialized once so broadcasts and history
+     * snapshots reuse the same bytes.
+     *
+     * @return the serialized message
+     */
+    public JsonFrame addMessage(ChatMessageDTO message) {
+        return messages.append(seq -> toStoredMessage(message, seq)).frame();
+    }
+
+    // Broadcasts under the history's write lock, so the topic carries the messages in sequence order
+    private void addAndBroadcast(ChatMessageDTO message) {
+        messages.append(seq -> toStoredMessage(message, seq), stored -> broadcast(stored.frame()));
+    }
+
+    private StoredMessage toStoredMessage(ChatMessageDTO message, long seq) {
+        message.setSeq(seq);
+        message.setEpoch(epoch);
+        JsonFrame frame = serialize(message);
+        // Counted only once the message is sure to enter the history, or a failed append would pin the name
+        placeholderNameIndex.enteredHistory(message.getAvatarName());
+        return new StoredMessage(message, frame);
+    }
+
+    private JsonFrame serialize(ChatMessageDTO message) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return new JsonFrame(objectMapper.writeValueAsBytes(message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize chat message", e);
+        } finally {
+            sample.stop(meterRegistry.timer("chat.frames.serialization"));
         }
     }
+
+    private record StoredMessage(ChatMessageDTO message, JsonFrame frame) {
+    }
 }
@@ -6,7 +6,9 @@ import com.dirty.code.integrations.domain.FirebaseExchangeTokenRequest;
 import com.dirty.code.integrations.domain.FirebaseExchangeTokenResponse;
 import com.dirty.code.utils.GoogleTokenUtils;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.firebase.auth.AuthErrorCode;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.UserRecord;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,7 +31,11 @@ public class FirebaseService {
             UserRecord userRecord = FirebaseAuth.getInstance().getUser(firebaseUid);
             log.info("Firebase user found for UID: {}", firebaseUid);
             return userRecord;
-        } catch (Exception ignored) {
+        } catch (FirebaseAuthException lookupException) {
+            if (lookupException.getAuthErrorCode() != AuthErrorCode.USER_NOT_FOUND) {
+                log.error("Failed to look up Firebase user for UID: {}", firebaseUid, lookupException);
+                throw new RuntimeException("Error looking up Firebase user", lookupException);
+            }
             try {
                 log.info("Creating new Firebase user for UID: {}", firebaseUid);
                 UserRecord.CreateRequest createRequest = new UserRecord.CreateRequest()
@@ -52,7 +58,10 @@ public class FirebaseService {
     public FirebaseExchangeTokenResponse createFirebaseIdToken(String firebaseUid, GoogleIdToken.Payload googlePayload) {
         log.info("Creating Firebase ID token for UID: {}", firebaseUid);
         String customToken = createFirebaseCustomToken(firebaseUid, googlePayload);
-        
+        return exchangeCustomToken(firebaseUid, customToken);
+    }
+
+    public FirebaseExchangeTokenResponse exchangeCustomToken(String firebaseUid, String customToken) {
         FirebaseExchangeTokenResponse response = firebaseAuthClient.exchangeCustomToken(
                 firebaseProperties.getApiKey(),
                 FirebaseExchangeTokenRequest.builder().token(customToken).build()
@@ -62,7 +71,7 @@ public class FirebaseService {
         return response;
     }
 
-    private String createFirebaseCustomToken(String firebaseUid, GoogleIdToken.Payload googlePayload) {
+    public String createFirebaseCustomToken(String firebaseUid, GoogleIdToken.Payload googlePayload) {
         log.info("Creating Firebase custom token for UID: {}", firebaseUid);
         try {
             Map<String, Object> customClaims = new HashMap<>();
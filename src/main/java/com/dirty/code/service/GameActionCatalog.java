@@ -0,0 +1,147 @@
+package com.dirty.code.service;
+
+import com.dirty.code.dto.GameActionDTO;
+import com.dirty.code.dto.converters.GameActionConverter;
+import com.dirty.code.repository.GameActionRepository;
+import com.dirty.code.repository.model.Attribute;
+import com.dirty.code.repository.model.GameAction;
+import com.dirty.code.repository.model.GameActionType;
+import com.dirty.code.utils.GameFormulas;
+import com.dirty.code.utils.RequirementMatrix;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-only, in-memory view of the action table.
+ * The table only changes when {@link com.dirty.code.config.GameDataInitializer} runs, so the hot
+ * paths read actions from here instead of going to the database. Call {@link #reload()} after
+ * changing the table.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameActionCatalog {
+
+    private final GameActionRepository gameActionRepository;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Actions of the type with their DTO templates and requirements, all taken from one snapshot so they
+     * stay aligned across a concurrent {@link #reload()}.
+     */
+    public ActionsOfType findByType(GameActionType type) {
+        return current().actionsByType.get(type.ordinal());
+    }
+
+    public Optional<GameAction> findById(UUID actionId) {
+        return Optional.ofNullable(current().actionsById.get(actionId));
+    }
+
+    /**
+     * Returns a fresh copy of the prebuilt DTO of the action, ready to receive the avatar specific values.
+     */
+    public GameActionDTO toDTO(GameAction action) {
+        GameActionDTO template = current().templatesById.get(action.getId());
+        return template != null ? template.toBuilder().build() : GameActionConverter.convertToDTO(action);
+    }
+
+    /**
+     * Attribute requirements of the action indexed by {@link Attribute#ordinal()}, as expected by
+     * {@link GameFormulas#calculateFailureChance}. The array is shared and must not be modified.
+     */
+    public int[] requirementVector(GameAction action) {
+        int[] requirements = current().requirementsById.get(action.getId());
+        return requirements != null ? requirements : buildRequirementVector(action);
+    }
+
+    public synchronized void reload() {
+        List<GameAction> actions = gameActionRepository.findAll();
+
+        List<List<GameAction>> byType = new ArrayList<>();
+        for (GameActionType type : GameActionType.values()) {
+            byType.add(actions.stream().filter(action -> action.getType() == type).toList());
+        }
+
+        Map<UUID, GameAction> byId = new HashMap<>();
+        Map<UUID, GameActionDTO> templates = new HashMap<>();
+        Map<UUID, int[]> requirements = new HashMap<>();
+        for (GameAction action : actions) {
+            byId.put(action.getId(), action);
+            templates.put(action.getId(), GameActionConverter.convertToDTO(action));
+            requirements.put(action.getId(), buildRequirementVector(action));
+        }
+
+        List<ActionsOfType> actionsByType = new ArrayList<>();
+        for (GameActionType type : GameActionType.values()) {
+            List<GameAction> typeActions = byType.get(type.ordinal());
+            double[] baseChances = new double[typeActions.size()];
+            List<int[]> vectors = new ArrayList<>(typeActions.size());
+            List<GameActionDTO> typeTemplates = new ArrayList<>(typeActions.size());
+            for (int i = 0; i < typeActions.size(); i++) {
+                GameAction action = typeActions.get(i);
+                baseChances[i] = action.getFailureChance() != null ? action.getFailureChance() : 0.0;
+                vectors.add(requirements.get(action.getId()));
+                typeTemplates.add(templates.get(action.getId()));
+            }
+            actionsByType.add(new ActionsOfType(type, typeActions, List.copyOf(typeTemplates),
+                    RequirementMatrix.of(baseChances, vectors)));
+        }
+
+        snapshot = new Snapshot(List.copyOf(actionsByType), Map.copyOf(byId), Map.copyOf(templates), Map.copyOf(requirements));
+        log.info("Game action catalog loaded with {} actions", actions.size());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static int[] buildRequirementVector(GameAction action) {
+        int[] requirements = new int[Attribute.values().length];
+        requirements[Attribute.STRENGTH.ordinal()] = action.getRequiredStrength() != null ? action.getRequiredStrength() : 0;
+        requirements[Attribute.INTELLIGENCE.ordinal()] = action.getRequiredIntelligence() != null ? action.getRequiredIntelligence() : 0;
+        requirements[Attribute.CHARISMA.ordinal()] = action.getRequiredCharisma() != null ? action.getRequiredCharisma() : 0;
+        requirements[Attribute.STEALTH.ordinal()] = action.getRequiredStealth() != null ? action.getRequiredStealth() : 0;
+        return requirements;
+    }
+
+    /**
+     * The actions of one type; {@code templates} and the rows of {@code requirements} follow the order of
+     * {@code actions}.
+     */
+    public record ActionsOfType(GameActionType type,
+                                List<GameAction> actions,
+                                List<GameActionDTO> templates,
+                                RequirementMatrix requirements) {
+
+        /**
+         * Fresh copy of the prebuilt DTO of the action at {@code index}, ready to receive the avatar specific values.
+         */
+        public GameActionDTO toDTO(int index) {
+            return templates.get(index).toBuilder().build();
+        }
+    }
+
+    private record Snapshot(List<ActionsOfType> actionsByType,
+                            Map<UUID, GameAction> actionsById,
+                            Map<UUID, GameActionDTO> templatesById,
+                            Map<UUID, int[]> requirementsById) {
+    }
+}
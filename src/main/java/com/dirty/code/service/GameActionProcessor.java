@@ -1,9 +1,7 @@
 package com.dirty.code.service;
 
 import com.dirty.code.repository.AvatarActionPurchaseRepository;
-import com.dirty.code.repository.model.Attribute;
 import com.dirty.code.repository.model.Avatar;
-import com.dirty.code.repository.model.AvatarActionPurchase;
 import com.dirty.code.repository.model.GameAction;
 import com.dirty.code.repository.model.GameActionType;
 import com.dirty.code.repository.model.TimeoutType;
@@ -15,7 +13,9 @@ import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @Component
@@ -23,39 +23,67 @@ import java.util.Map;
 public class GameActionProcessor {
     private final AvatarTimeoutService timeoutService;
     private final AvatarActionPurchaseRepository purchaseRepository;
+    private final AvatarExpiryService expiryService;
+    private final GameActionCatalog gameActionCatalog;
+
+    public static boolean isRiskFree(GameActionType type) {
+        return type == GameActionType.TRAINING || type == GameActionType.MARKET || type == GameActionType.HOSPITAL;
+    }
 
     public double calculateFailureChance(Avatar avatar, GameAction action) {
-        GameActionType type = action.getType();
-        if (type == GameActionType.TRAINING || type == GameActionType.MARKET || type == GameActionType.HOSPITAL) {
+        if (isRiskFree(action.getType())) {
             return 0.0;
         }
 
         return GameFormulas.calculateFailureChance(
                 action.getFailureChance() != null ? action.getFailureChance() : 0.0,
-                Map.of(
-                        Attribute.STRENGTH, action.getRequiredStrength() != null ? action.getRequiredStrength() : 0,
-                        Attribute.INTELLIGENCE, action.getRequiredIntelligence() != null ? action.getRequiredIntelligence() : 0,
-                        Attribute.CHARISMA, action.getRequiredCharisma() != null ? action.getRequiredCharisma() : 0,
-                        Attribute.STEALTH, action.getRequiredStealth() != null ? action.getRequiredStealth() : 0
-                ),
-                Map.of(
-                        Attribute.STRENGTH, avatar.getEffectiveStrength(),
-                        Attribute.INTELLIGENCE, avatar.getEffectiveIntelligence(),
-                        Attribute.CHARISMA, avatar.getEffectiveCharisma(),
-                        Attribute.STEALTH, avatar.getEffectiveStealth()
-                )
+                gameActionCatalog.requirementVector(action),
+                avatar.getEffectiveStrength(),
+                avatar.getEffectiveIntelligence(),
+                avatar.getEffectiveCharisma(),
+                avatar.getEffectiveStealth()
         );
     }
 
-    public BigDecimal calculateDynamicPrice(Avatar avatar, GameAction action) {
-        return purchaseRepository.findByAvatarIdAndActionId(avatar.getId(), action.getId())
-                .map(AvatarActionPurchase::getCurrentPrice)
-                .orElse(action.getMoney());
+    /**
+     * Failure chances of every action of the type, in the order of {@link GameActionCatalog.ActionsOfType#actions()},
+     * scored in one batch.
+     */
+    public double[] calculateFailureChances(Avatar avatar, GameActionCatalog.ActionsOfType actions) {
+        double[] chances = new double[actions.actions().size()];
+        if (isRiskFree(actions.type())) {
+            return chances;
+        }
+
+        GameFormulas.calculateFailureChances(actions.requirements(),
+                avatar.getEffectiveStrength(),
+                avatar.getEffectiveIntelligence(),
+                avatar.getEffectiveCharisma(),
+                avatar.getEffectiveStealth(),
+                chances);
+        return chances;
     }
 
-    public boolean processActionEffects(Avatar avatar, GameAction action) {
+    /**
+     * Loads the purchase counts of the avatar with a single query. Prices are derived from them by
+     * {@link #calculateDynamicPrice(Map, GameAction)}. The returned map is meant to live for one request
+     * and is kept up to date by {@link #processActionEffects(Avatar, GameAction, Map)} when a purchase happens.
+     */
+    public Map<UUID, Integer> resolvePurchaseCounts(Avatar avatar) {
+        Map<UUID, Integer> purchaseCounts = new HashMap<>();
+        for (AvatarActionPurchaseRepository.PurchaseCount purchase : purchaseRepository.findPurchaseCountsByAvatarId(avatar.getId())) {
+            purchaseCounts.put(purchase.getActionId(), purchase.getPurchaseCount());
+        }
+        return purchaseCounts;
+    }
+
+    public BigDecimal calculateDynamicPrice(Map<UUID, Integer> purchaseCounts, GameAction action) {
+        return GameFormulas.dynamicPrice(action.getMoney(), purchaseCounts.getOrDefault(action.getId(), 0));
+    }
+
+    public boolean processActionEffects(Avatar avatar, GameAction action, Map<UUID, Integer> purchaseCounts) {
         if (action.getSpecialAction() != null) {
-            applySpecialAction(avatar, action);
+            applySpecialAction(avatar, action, purchaseCounts);
             return true;
         }
 
@@ -79,12 +107,12 @@ public class GameActionProcessor {
             return false;
         }
 
-        handleSuccess(avatar, action);
+        handleSuccess(avatar, action, purchaseCounts);
         return true;
     }
 
-    private void applySpecialAction(Avatar avatar, GameAction action) {
-        BigDecimal price = calculateDynamicPrice(avatar, action);
+    private void applySpecialAction(Avatar avatar, GameAction action, Map<UUID, Integer> purchaseCounts) {
+        BigDecimal price = calculateDynamicPrice(purchaseCounts, action);
         if (price != null) {
             avatar.setMoney(GameFormulas.clampMoney(avatar.getMoney().add(price)));
         }
@@ -100,22 +128,22 @@ public class GameActionProcessor {
             case ADD_STRENGTH:
                 if (checkPermanentStatFailure(avatar, action)) return;
                 avatar.setStrength(GameFormulas.permanentStatIncrement(avatar.getStrength()));
-                updateActionCost(avatar, action);
+                updateActionCost(avatar, action, purchaseCounts);
                 break;
             case ADD_INTELLIGENCE:
                 if (checkPermanentStatFailure(avatar, action)) return;
                 avatar.setIntelligence(GameFormulas.permanentStatIncrement(avatar.getIntelligence()));
-                updateActionCost(avatar, action);
+                updateActionCost(avatar, action, purchaseCounts);
                 break;
             case ADD_CHARISMA:
                 if (checkPermanentStatFailure(avatar, action)) return;
                 avatar.setCharisma(GameFormulas.permanentStatIncrement(avatar.getCharisma()));
-                updateActionCost(avatar, action);
+                updateActionCost(avatar, action, purchaseCounts);
                 break;
             case ADD_STEALTH:
                 if (checkPermanentStatFailure(avatar, action)) return;
                 avatar.setStealth(GameFormulas.permanentStatIncrement(avatar.getStealth()));
-                updateActionCost(avatar, action);
+                updateActionCost(avatar, action, purchaseCounts);
                 break;
             case VOLUNTARY_WORK:
                 Integer wanted = avatar.getWantedLevel();
@@ -138,21 +166,12 @@ public class GameActionProcessor {
         }
     }
 
-    private void updateActionCost(Avatar avatar, GameAction action) {
-        AvatarActionPurchase purchase = purchaseRepository.findByAvatarIdAndActionId(avatar.getId(), action.getId())
-                .orElse(AvatarActionPurchase.builder()
-                        .avatar(avatar)
-                        .action(action)
-                        .purchaseCount(0)
-                        .currentPrice(action.getMoney())
-                        .build());
+    private void updateActionCost(Avatar avatar, GameAction action, Map<UUID, Integer> purchaseCounts) {
+        purchaseRepository.incrementPurchaseCount(avatar.getId(), action.getId(), LocalDateTime.now());
 
-        purchase.setPurchaseCount(purchase.getPurchaseCount() + 1);
-        
-        purchase.setCurrentPrice(GameFormulas.priceIncrease(purchase.getCurrentPrice()));
-        
-        purchaseRepository.save(purchase);
-        log.info("Action {} cost increased for avatar {} to {}", action.getTitle(), avatar.getName(), purchase.getCurrentPrice());
+        int purchaseCount = purchaseCounts.merge(action.getId(), 1, Integer::sum);
+        log.info("Action {} cost increased for avatar {} to {}", action.getTitle(), avatar.getName(),
+                GameFormulas.dynamicPrice(action.getMoney(), purchaseCount));
     }
 
     private boolean checkPermanentStatFailure(Avatar avatar, GameAction action) {
@@ -166,7 +185,7 @@ public class GameActionProcessor {
         return false;
     }
 
-    private void handleFailure(Avatar avatar, GameAction action, double failureChance) {
+    void handleFailure(Avatar avatar, GameAction action, double failureChance) {
         int multiplier = GameFormulas.riskMultiplier(failureChance);
         boolean isHighRisk = failureChance > GameFormulas.HIGH_RISK_THRESHOLD;
 
@@ -197,13 +216,14 @@ public class GameActionProcessor {
                 avatar.setTimeout(LocalDateTime.now().plusMinutes(jailTimeMinutes));
                 avatar.setTimeoutType(TimeoutType.JAIL);
                 avatar.setTimeoutCost(GameFormulas.timeoutCost(TimeoutType.JAIL, effectiveLevel, multiplier));
+                expiryService.track(avatar);
                 log.info("Avatar {} sent to jail due to wanted level {}, until {} (High risk: {})", avatar.getName(), wantedLevel, avatar.getTimeout(), isHighRisk);
             }
         }
     }
 
-    private void handleSuccess(Avatar avatar, GameAction action) {
-        BigDecimal actionMoney = calculateDynamicPrice(avatar, action);
+    private void handleSuccess(Avatar avatar, GameAction action, Map<UUID, Integer> purchaseCounts) {
+        BigDecimal actionMoney = calculateDynamicPrice(purchaseCounts, action);
 
         if (actionMoney != null) {
             BigDecimal moneyToAdd = GameFormulas.calculateMoneyVariation(actionMoney, action.getMoneyVariation());
@@ -215,31 +235,32 @@ public class GameActionProcessor {
             avatar.increaseExperience(xpToAdd);
         }
 
-        applyTemporaryStats(avatar, action);
+        applyTemporaryStats(avatar, action, 1);
     }
 
-    private void applyTemporaryStats(Avatar avatar, GameAction action) {
+    void applyTemporaryStats(Avatar avatar, GameAction action, int times) {
         boolean hasTempStats = false;
         
         if (action.getTemporaryStrength() != null && action.getTemporaryStrength() != 0) {
-            avatar.setTemporaryStrength((avatar.getTemporaryStrength() != null ? avatar.getTemporaryStrength() : 0) + action.getTemporaryStrength());
+            avatar.setTemporaryStrength((avatar.getTemporaryStrength() != null ? avatar.getTemporaryStrength() : 0) + action.getTemporaryStrength() * times);
             hasTempStats = true;
         }
         if (action.getTemporaryIntelligence() != null && action.getTemporaryIntelligence() != 0) {
-            avatar.setTemporaryIntelligence((avatar.getTemporaryIntelligence() != null ? avatar.getTemporaryIntelligence() : 0) + action.getTemporaryIntelligence());
+            avatar.setTemporaryIntelligence((avatar.getTemporaryIntelligence() != null ? avatar.getTemporaryIntelligence() : 0) + action.getTemporaryIntelligence() * times);
             hasTempStats = true;
         }
         if (action.getTemporaryCharisma() != null && action.getTemporaryCharisma() != 0) {
-            avatar.setTemporaryCharisma((avatar.getTemporaryCharisma() != null ? avatar.getTemporaryCharisma() : 0) + action.getTemporaryCharisma());
+            avatar.setTemporaryCharisma((avatar.getTemporaryCharisma() != null ? avatar.getTemporaryCharisma() : 0) + action.getTemporaryCharisma() * times);
             hasTempStats = true;
         }
         if (action.getTemporaryStealth() != null && action.getTemporaryStealth() != 0) {
-            avatar.setTemporaryStealth((avatar.getTemporaryStealth() != null ? avatar.getTemporaryStealth() : 0) + action.getTemporaryStealth());
+            avatar.setTemporaryStealth((avatar.getTemporaryStealth() != null ? avatar.getTemporaryStealth() : 0) + action.getTemporaryStealth() * times);
             hasTempStats = true;
         }
 
         if (hasTempStats) {
             avatar.setStatusCooldown(GameFormulas.temporaryStatsCooldown(LocalDateTime.now()));
+            expiryService.track(avatar);
             log.info("Applied temporary stats to avatar {} from action {}. Cooldown set to {}", 
                     avatar.getName(), action.getTitle(), avatar.getStatusCooldown());
         }
@@ -1,19 +1,15 @@
 package com.dirty.code.service;
 
+import com.dirty.code.config.security.PlayerPrincipal;
 import com.dirty.code.controller.GameActionController;
 import com.dirty.code.dto.ActionResultDTO;
 import com.dirty.code.dto.AvatarResponseDTO;
 import com.dirty.code.dto.GameActionDTO;
-import com.dirty.code.dto.converters.GameActionConverter;
+import com.dirty.code.exception.BadRequestException;
 import com.dirty.code.exception.BusinessException;
 import com.dirty.code.exception.ResourceNotFoundException;
 import com.dirty.code.repository.AvatarRepository;
-import com.dirty.code.repository.AvatarSpecialActionRepository;
-import com.dirty.code.repository.GameActionRepository;
-import com.dirty.code.repository.UserRepository;
 import com.dirty.code.repository.model.Avatar;
-import com.dirty.code.repository.model.AvatarSpecialAction;
-import com.dirty.code.repository.model.DirtyUser;
 import com.dirty.code.repository.model.GameAction;
 import com.dirty.code.repository.model.GameActionType;
 import com.dirty.code.utils.VariationUtils;
@@ -23,58 +19,70 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GameActionService implements GameActionController {
 
-    private final GameActionRepository gameActionRepository;
-    private final UserRepository userRepository;
+    /**
+     * Upper bound of {@code times} in one request, so a single call cannot hold the avatar's write lane,
+     * transaction and connection for an arbitrary number of runs.
+     */
+    static final int MAX_TIMES = 1_000;
+
+    private final GameActionCatalog gameActionCatalog;
     private final AvatarRepository avatarRepository;
     private final AvatarTimeoutService timeoutService;
     private final GameActionProcessor actionProcessor;
-    private final AvatarSpecialActionRepository specialActionRepository;
+    private final BulkActionExecutor bulkActionExecutor;
+    private final AvatarWriteLane avatarWriteLane;
 
     @Override
-    public List<GameActionDTO> getActionsByType(String uid, GameActionType type) {
-        DirtyUser user = userRepository.findByFirebaseUid(uid)
-                .orElseThrow(() -> new ResourceNotFoundException("DirtyUser not found for user: " + uid));
-
-        Avatar avatar = avatarRepository.findByUserAndActiveTrue(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Active avatar not found for user: " + uid));
-
-        avatar.checkAndResetTemporaryStats();
-        handleDrStrangeVisibility(avatar);
-
-        return gameActionRepository.findByType(type).stream()
-                .map(action -> {
-                    GameActionDTO dto = GameActionConverter.convertToDTO(action);
-                    dto.setFailureChance(actionProcessor.calculateFailureChance(avatar, action));
-                    dto.setMoney(actionProcessor.calculateDynamicPrice(avatar, action));
-
-                    return dto;
-                })
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<GameActionDTO> getActionsByType(PlayerPrincipal player, GameActionType type) {
+        UUID avatarId = player.requireActiveAvatarId();
+        Avatar avatar = avatarRepository.findById(avatarId)
+                .orElseThrow(() -> new ResourceNotFoundException("Avatar not found with ID: " + avatarId));
+
+        Map<UUID, Integer> purchaseCounts = actionProcessor.resolvePurchaseCounts(avatar);
+
+        // One snapshot of the catalog, so the chances line up with the actions even if it is reloaded meanwhile
+        GameActionCatalog.ActionsOfType actionsOfType = gameActionCatalog.findByType(type);
+        List<GameAction> actions = actionsOfType.actions();
+        double[] failureChances = actionProcessor.calculateFailureChances(avatar, actionsOfType);
+
+        List<GameActionDTO> result = new ArrayList<>(actions.size());
+        for (int i = 0; i < actions.size(); i++) {
+            GameAction action = actions.get(i);
+            GameActionDTO dto = actionsOfType.toDTO(i);
+            dto.setFailureChance(failureChances[i]);
+            dto.setMoney(actionProcessor.calculateDynamicPrice(purchaseCounts, action));
+            result.add(dto);
+        }
+        return result;
     }
 
-    @Transactional
     @Override
-    public ActionResultDTO performAction(String uid, UUID actionId, Integer times) {
-        DirtyUser user = userRepository.findByFirebaseUid(uid)
-                .orElseThrow(() -> new ResourceNotFoundException("DirtyUser not found for user: " + uid));
+    public ActionResultDTO performAction(PlayerPrincipal player, UUID actionId, Integer times) {
+        if (times != null && (times < 1 || times > MAX_TIMES)) {
+            throw new BadRequestException("times must be between 1 and " + MAX_TIMES);
+        }
+        UUID avatarId = player.requireActiveAvatarId();
+        return avatarWriteLane.execute(avatarId, "performAction", () -> performAction(avatarId, actionId, times));
+    }
 
-        Avatar avatar = avatarRepository.findByUserAndActiveTrue(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Active avatar not found for user: " + uid));
+    private ActionResultDTO performAction(UUID avatarId, UUID actionId, Integer times) {
+        Avatar avatar = avatarRepository.findForUpdate(avatarId)
+                .orElseThrow(() -> new ResourceNotFoundException("Avatar not found with ID: " + avatarId));
 
         avatar.checkAndResetTemporaryStats();
-        handleDrStrangeVisibility(avatar);
 
-        GameAction action = gameActionRepository.findById(actionId)
+        GameAction action = gameActionCatalog.findById(actionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Action not found with ID: " + actionId));
 
         if (avatar.getTimeoutType() != null && avatar.getTimeout() != null && java.time.LocalDateTime.now().isBefore(avatar.getTimeout())) {
@@ -83,27 +91,36 @@ public class GameActionService implements GameActionController {
         timeoutService.validateAndHandleTimeout(avatar);
 
         Map<String, Object> initialStats = VariationUtils.captureAvatarStats(avatar);
+        Map<UUID, Integer> purchaseCounts = actionProcessor.resolvePurchaseCounts(avatar);
 
+        int requestedTimes = times != null ? times : 1;
         int executionCount = 0;
         boolean overallSuccess = true;
 
-        for (int i = 0; i < (times != null ? times : 1); i++) {
-            if (!canPerformAction(avatar, action, i == 0)) {
-                break;
-            }
+        if (requestedTimes > 1 && bulkActionExecutor.supports(action, purchaseCounts)) {
+            canPerformAction(avatar, action, purchaseCounts, true);
+            BulkActionExecutor.BulkResult result = bulkActionExecutor.execute(avatar, action, purchaseCounts, requestedTimes);
+            executionCount = result.getTimesExecuted();
+            overallSuccess = result.isSuccess();
+        } else {
+            for (int i = 0; i < requestedTimes; i++) {
+                if (!canPerformAction(avatar, action, purchaseCounts, i == 0)) {
+                    break;
+                }
 
-            executionCount++;
-            overallSuccess = actionProcessor.processActionEffects(avatar, action);
+                executionCount++;
+                overallSuccess = actionProcessor.processActionEffects(avatar, action, purchaseCounts);
 
-            if (!overallSuccess || avatar.getTimeout() != null) {
-                break;
+                if (!overallSuccess || avatar.getTimeout() != null) {
+                    break;
+                }
             }
         }
 
         Avatar updatedAvatar = avatarRepository.save(avatar);
         Map<String, Object> variations = VariationUtils.calculateVariations(initialStats, updatedAvatar);
         variations.put("actionId", action.getId());
-        variations.put("nextMoney", actionProcessor.calculateDynamicPrice(updatedAvatar, action));
+        variations.put("nextMoney", actionProcessor.calculateDynamicPrice(purchaseCounts, action));
         variations.put("nextFailureChance", actionProcessor.calculateFailureChance(updatedAvatar, action));
 
         return ActionResultDTO.builder()
@@ -114,8 +131,8 @@ public class GameActionService implements GameActionController {
                 .build();
     }
 
-    private boolean canPerformAction(Avatar avatar, GameAction action, boolean firstExecution) {
-        BigDecimal actionMoney = actionProcessor.calculateDynamicPrice(avatar, action);
+    private boolean canPerformAction(Avatar avatar, GameAction action, Map<UUID, Integer> purchaseCounts, boolean firstExecution) {
+        BigDecimal actionMoney = actionProcessor.calculateDynamicPrice(purchaseCounts, action);
 
         if (actionMoney != null && actionMoney.compareTo(BigDecimal.ZERO) < 0) {
             BigDecimal cost = actionMoney.abs();
@@ -137,35 +154,21 @@ public class GameActionService implements GameActionController {
         return true;
     }
 
-    private void handleDrStrangeVisibility(Avatar avatar) {
-        AvatarSpecialAction specialAction = avatar.getSpecialAction();
-        if (specialAction == null) {
-            specialAction = AvatarSpecialAction.builder()
-                    .avatar(avatar)
-                    .drStrangeVisible(false)
-                    .build();
-            avatar.setSpecialAction(specialAction);
-        }
-        specialAction.checkAndHandleDrStrangeVisibility();
-        specialActionRepository.save(specialAction);
-    }
-
     @Override
-    @Transactional
-    public ActionResultDTO leaveTimeout(String uid, boolean payForFreedom) {
-        log.info("Avatar attempting to leave timeout for user UID: {}, payForFreedom: {}", uid, payForFreedom);
-
-        DirtyUser user = userRepository.findByFirebaseUid(uid)
-                .orElseThrow(() -> new ResourceNotFoundException("DirtyUser not found for user: " + uid));
+    public ActionResultDTO leaveTimeout(PlayerPrincipal player, boolean payForFreedom) {
+        log.info("Avatar attempting to leave timeout for user UID: {}, payForFreedom: {}", player.uid(), payForFreedom);
 
-        Avatar avatar = avatarRepository.findByUserAndActiveTrue(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Active avatar not found for user: " + uid));
+        UUID avatarId = player.requireActiveAvatarId();
+        return avatarWriteLane.execute(avatarId, "leaveTimeout", () -> {
+            Avatar avatar = avatarRepository.findForUpdate(avatarId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Avatar not found with ID: " + avatarId));
 
-        Avatar savedAvatar = timeoutService.leaveTimeout(avatar, payForFreedom);
+            Avatar savedAvatar = timeoutService.leaveTimeout(avatar, payForFreedom);
 
-        return ActionResultDTO.builder()
-                .success(true)
-                .avatar(AvatarResponseDTO.fromAvatar(savedAvatar))
-                .build();
+            return ActionResultDTO.builder()
+                    .success(true)
+                    .avatar(AvatarResponseDTO.fromAvatar(savedAvatar))
+                    .build();
+        });
     }
 }
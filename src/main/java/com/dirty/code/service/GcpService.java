@@ -1,22 +1,19 @@
 package com.dirty.code.service;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.util.Collections;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GcpService {
 
+    private final IdTokenVerifier idTokenVerifier;
+
     @Value("${gcp.client-id}")
     private String clientId;
 
@@ -40,18 +37,11 @@ public class GcpService {
 
     public GoogleIdToken.Payload verifyGoogleIdToken(String googleIdTokenString) {
         log.info("Verifying Google ID token");
-        GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(new NetHttpTransport(), GsonFactory.getDefaultInstance())
-                .setAudience(Collections.singletonList(clientId))
-                .build();
-
         try {
-            GoogleIdToken googleIdToken = verifier.verify(googleIdTokenString);
-            if (googleIdToken == null) {
-                log.error("Invalid Google ID token (null after verification)");
-                throw new RuntimeException("Invalid Google ID token");
-            }
-            log.info("Google ID token verified successfully for user: {}", googleIdToken.getPayload().getEmail());
-            return googleIdToken.getPayload();
+            GoogleIdToken.Payload payload = idTokenVerifier.verify(googleIdTokenString)
+                    .orElseThrow(() -> new RuntimeException("Invalid Google ID token"));
+            log.info("Google ID token verified successfully for user: {}", payload.getEmail());
+            return payload;
         } catch (Exception exception) {
             log.error("Error verifying Google ID token", exception);
             throw new RuntimeException("Error verifying Google ID token", exception);
@@ -9,17 +9,28 @@ import com.dirty.code.integrations.domain.GoogleTokenResponse;
 import com.dirty.code.utils.GoogleTokenUtils;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.firebase.auth.UserRecord;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.view.RedirectView;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GmailAuthService implements GmailAuthController {
 
+    private static final long LOGIN_STEP_TIMEOUT_SECONDS = 10;
+
     @Value("${gcp.client-id}")
     private String clientId;
 
@@ -37,6 +48,7 @@ public class GmailAuthService implements GmailAuthController {
     private final GcpService gcpService;
     private final FirebaseService firebaseService;
     private final FirebaseProperties firebaseProperties;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public RedirectView redirectToGoogle() {
@@ -57,21 +69,18 @@ public class GmailAuthService implements GmailAuthController {
         GoogleIdToken.Payload googlePayload;
 
         if (firebaseProperties.isEnabled()) {
-            GoogleTokenResponse tokenResponse = googleOAuthTokenClient.exchangeCode(GoogleTokenRequest.builder()
+            GoogleTokenResponse tokenResponse = timed("code_exchange", () -> googleOAuthTokenClient.exchangeCode(GoogleTokenRequest.builder()
                     .code(code)
                     .clientId(clientId)
                     .clientSecret(clientSecret)
                     .redirectUri(redirectUri)
-                    .build());
+                    .build()));
 
-            googlePayload = gcpService.verifyGoogleIdToken(tokenResponse.getIdToken());
+            googlePayload = timed("id_token_verification", () -> gcpService.verifyGoogleIdToken(tokenResponse.getIdToken()));
             firebaseUid = GoogleTokenUtils.getFirebaseUid(googlePayload);
             log.info("Processing callback for user: {}", googlePayload.getEmail());
 
-            UserRecord firebaseUser = firebaseService.getOrCreateFirebaseUser(firebaseUid, googlePayload);
-            userService.saveOrUpdateUser(firebaseUser);
-
-            FirebaseExchangeTokenResponse firebaseToken = firebaseService.createFirebaseIdToken(firebaseUid, googlePayload);
+            FirebaseExchangeTokenResponse firebaseToken = createUsersAndToken(firebaseUid, googlePayload);
             return new RedirectView(String.format(frontendLoginUrl, firebaseToken.getIdToken(), firebaseToken.getRefreshToken()));
         } else {
             log.info("Offline mode: Creating mock user and tokens");
@@ -81,4 +90,55 @@ public class GmailAuthService implements GmailAuthController {
             return new RedirectView(String.format(frontendLoginUrl, "mock-token-123", "mock-token-123"));
         }
     }
+
+    /**
+     * The local user, the Firebase user and the custom token only depend on the Google payload, so they
+     * are produced concurrently. The custom token is exchanged once the Firebase user exists, since
+     * signing in with it for an unknown uid would create the user on its own.
+     */
+    private FirebaseExchangeTokenResponse createUsersAndToken(String firebaseUid, GoogleIdToken.Payload googlePayload) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> localUser = executor.submit(() -> timed("local_user_upsert", () -> {
+                userService.saveOrUpdateUser(firebaseUid, GoogleTokenUtils.getEmail(googlePayload),
+                        GoogleTokenUtils.getName(googlePayload), GoogleTokenUtils.getPicture(googlePayload));
+                return null;
+            }));
+            Future<UserRecord> firebaseUser = executor.submit(() ->
+                    timed("firebase_user", () -> firebaseService.getOrCreateFirebaseUser(firebaseUid, googlePayload)));
+            Future<String> customToken = executor.submit(() ->
+                    timed("custom_token", () -> firebaseService.createFirebaseCustomToken(firebaseUid, googlePayload)));
+
+            try {
+                await(firebaseUser);
+                String token = await(customToken);
+                FirebaseExchangeTokenResponse response = timed("custom_token_exchange",
+                        () -> firebaseService.exchangeCustomToken(firebaseUid, token));
+                await(localUser);
+                return response;
+            } catch (RuntimeException exception) {
+                executor.shutdownNow();
+                throw exception;
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get(LOGIN_STEP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Login step failed", exception.getCause());
+        } catch (TimeoutException exception) {
+            throw new RuntimeException("Login step timed out", exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Login interrupted", exception);
+        }
+    }
+
+    private <T> T timed(String phase, Supplier<T> step) {
+        return meterRegistry.timer("login.callback.phase", "phase", phase).record(step);
+    }
 }
@@ -0,0 +1,111 @@
+package com.dirty.code.service;
+
+import com.dirty.code.integrations.jwks.IdTokenKeySource;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.gson.GsonFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Long-lived Google ID-token verifier. The signing keys are loaded once from the {@link IdTokenKeySource},
+ * refreshed in the background, and reloaded on demand when a token names a key id that is not known yet
+ * (Google rotated its keys), at most once per {@link #MIN_RELOAD_INTERVAL_MS}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdTokenVerifier {
+
+    private static final List<String> ISSUERS = List.of("accounts.google.com", "https://accounts.google.com");
+    private static final long ACCEPTABLE_SKEW_SECONDS = 300;
+    private static final long MIN_RELOAD_INTERVAL_MS = 60_000;
+
+    private final IdTokenKeySource keySource;
+
+    @Value("${gcp.client-id}")
+    private String clientId;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long lastReloadMillis;
+
+    /**
+     * @return the payload of the token, or empty if the token is malformed, badly signed, expired
+     * or not issued by Google for this client
+     */
+    public Optional<GoogleIdToken.Payload> verify(String idToken) throws IOException {
+        GoogleIdToken token;
+        try {
+            token = GoogleIdToken.parse(GsonFactory.getDefaultInstance(), idToken);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        if (!"RS256".equals(token.getHeader().getAlgorithm())) {
+            return Optional.empty();
+        }
+        PublicKey key = findKey(token.getHeader().getKeyId());
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        try {
+            if (!token.verifySignature(key)) {
+                return Optional.empty();
+            }
+        } catch (GeneralSecurityException e) {
+            log.warn("Failed to check Google ID token signature: {}", e.getMessage());
+            return Optional.empty();
+        }
+
+        boolean valid = token.verifyIssuer(ISSUERS)
+                && token.verifyAudience(List.of(clientId))
+                && token.verifyTime(System.currentTimeMillis(), ACCEPTABLE_SKEW_SECONDS);
+        return valid ? Optional.of(token.getPayload()) : Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${gcp.id-token.keys-refresh-ms:3600000}")
+    public void refreshKeys() {
+        try {
+            reloadKeys();
+        } catch (IOException e) {
+            log.error("Failed to refresh Google ID token signing keys", e);
+        }
+    }
+
+    private PublicKey findKey(String keyId) throws IOException {
+        if (keyId == null) {
+            return null;
+        }
+        PublicKey key = keys.get(keyId);
+        if (key == null && System.currentTimeMillis() - lastReloadMillis >= MIN_RELOAD_INTERVAL_MS) {
+            synchronized (this) {
+                key = keys.get(keyId);
+                if (key == null && System.currentTimeMillis() - lastReloadMillis >= MIN_RELOAD_INTERVAL_MS) {
+                    reloadKeys();
+                    key = keys.get(keyId);
+                }
+            }
+        }
+        return key;
+    }
+
+    private synchronized void reloadKeys() throws IOException {
+        lastReloadMillis = System.currentTimeMillis();
+        Map<String, PublicKey> loaded = keySource.loadKeys();
+        if (loaded.isEmpty()) {
+            throw new IOException("Key source returned no signing keys");
+        }
+        keys = loaded;
+        log.info("Loaded {} Google ID token signing keys", loaded.size());
+    }
+}
@@ -0,0 +1,92 @@
+package com.dirty.code.service;
+
+import com.dirty.code.utils.GameRandom;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out placeholder names to users chatting without an avatar. A name is free when no user holds it
+ * and no message in the chat history shows it; the history is tracked by reference counts that the chat
+ * updates as messages enter and leave the window, so checking a name is a map lookup.
+ * <p>
+ * When the randomly picked name is taken, it gets the lowest free suffix ({@code name_2}, {@code name_3}, ...).
+ * Released suffixes are handed out again, so suffixes stay below the number of names in use and the search
+ * always ends: only finitely many names are held or shown at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlaceholderNameIndex {
+
+    private static final String DEFAULT_NAME = "Dev anônimo";
+
+    private final ResourceLoader resourceLoader;
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> namesInHistory = new ConcurrentHashMap<>();
+    private final Map<String, String> owners = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        try {
+            Resource resource = resourceLoader.getResource("classpath:jsons/placeHolderNames.json");
+            JsonNode root = new ObjectMapper().readTree(resource.getInputStream());
+            JsonNode namesNode = root.get("badDeveloperFunnyNames");
+            if (namesNode != null && namesNode.isArray()) {
+                for (JsonNode node : namesNode) {
+                    names.add(node.asText());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to load placeholder names", e);
+        }
+    }
+
+    /**
+     * Reserves a free name for the user until {@link #release} is called.
+     */
+    public String allocate(String uid) {
+        String name = names.isEmpty() ? DEFAULT_NAME : names.get(GameRandom.current().nextInt(names.size()));
+        if (tryClaim(name, uid)) {
+            return name;
+        }
+
+        for (int suffix = 2; ; suffix++) {
+            String candidate = name + "_" + suffix;
+            if (tryClaim(candidate, uid)) {
+                return candidate;
+            }
+        }
+    }
+
+    public void release(String name, String uid) {
+        owners.remove(name, uid);
+    }
+
+    public void enteredHistory(String name) {
+        namesInHistory.merge(name, 1, Integer::sum);
+    }
+
+    public void leftHistory(String name) {
+        namesInHistory.computeIfPresent(name, (_, count) -> count == 1 ? null : count - 1);
+    }
+
+    private boolean tryClaim(String name, String uid) {
+        if (namesInHistory.containsKey(name)) {
+            return false;
+        }
+        String owner = owners.putIfAbsent(name, uid);
+        return owner == null || owner.equals(uid);
+    }
+}
@@ -0,0 +1,78 @@
+package com.dirty.code.service;
+
+import com.dirty.code.config.security.PlayerPrincipal;
+import com.dirty.code.repository.UserRepository;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the uid of a verified token into a {@link PlayerPrincipal} with a single join query,
+ * cached for a short time. Unknown uids are not cached, so a user is accepted as soon as it is created.
+ * <p>
+ * A lookup that overlaps an invalidation may have read the old state, so its result is returned but
+ * not cached.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlayerPrincipalResolver {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final long MAX_ENTRIES = 10_000;
+
+    private final UserRepository userRepository;
+
+    private final Cache<String, PlayerPrincipal> principals = CacheBuilder.newBuilder()
+            .expireAfterWrite(TTL)
+            .maximumSize(MAX_ENTRIES)
+            .build();
+
+    // Bumped before every invalidation
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public Optional<PlayerPrincipal> resolve(String uid) {
+        PlayerPrincipal cached = principals.getIfPresent(uid);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long invalidationsBefore = invalidations.get();
+        Optional<PlayerPrincipal> principal = userRepository.findPrincipalByFirebaseUid(uid)
+                .map(ids -> new PlayerPrincipal(uid, ids.getUserId(), ids.getActiveAvatarId()));
+        // Checked under the entry lock: an invalidation counted after the check removes the entry after us
+        principal.ifPresent(resolved -> principals.asMap().compute(uid,
+                (_, current) -> invalidations.get() == invalidationsBefore ? resolved : current));
+        return principal;
+    }
+
+    /**
+     * Drops the cached principal once the current transaction commits (or right away outside one),
+     * e.g. after the user's active avatar changed.
+     */
+    public void invalidate(String uid) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow(uid);
+                }
+            });
+        } else {
+            invalidateNow(uid);
+        }
+    }
+
+    private void invalidateNow(String uid) {
+        invalidations.incrementAndGet();
+        principals.invalidate(uid);
+    }
+}
@@ -6,12 +6,13 @@ import com.dirty.code.repository.UserRepository;
 import com.dirty.code.repository.model.Avatar;
 import com.dirty.code.repository.model.DirtyUser;
 import com.dirty.code.utils.GameFormulas;
+import com.dirty.code.utils.GameRandom;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -20,18 +21,17 @@ import java.math.BigInteger;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
-import java.util.Random;
-import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SimulatedAvatarService {
 
+    private static final String BOT_UID_PREFIX = "bot-uid-";
+    private static final int MAX_SIMULATED_AVATARS = 50;
+
     private final AvatarRepository avatarRepository;
     private final UserRepository userRepository;
-    private final SimpMessagingTemplate messagingTemplate;
-    private final Random random = new Random();
 
     @Lazy
     @Autowired
@@ -53,7 +53,7 @@ public class SimulatedAvatarService {
     }
 
     private void createSimulatedAvatar(String name, int difficultyMultiplier) {
-        String firebaseUid = "bot-uid-" + name.toLowerCase();
+        String firebaseUid = BOT_UID_PREFIX + name.toLowerCase();
         List<String> avatares = List.of("/avatars/avatar_1.webp", 
                 "/avatars/avatar_2.webp", 
                 "/avatars/avatar_3.webp",
@@ -64,7 +64,7 @@ public class SimulatedAvatarService {
                 "/avatars/avatar_8.webp",
                 "/avatars/avatar_9.webp",
                 "/avatars/avatar_10.webp");
-        String randomAvatarPicture = avatares.get(ThreadLocalRandom.current().nextInt(avatares.size()));
+        String randomAvatarPicture = avatares.get(GameRandom.current().nextInt(avatares.size()));
 
         DirtyUser botUser = userRepository.findByFirebaseUid(firebaseUid)
                 .orElseGet(() -> userRepository.save(DirtyUser.builder()
@@ -100,11 +100,6 @@ public class SimulatedAvatarService {
     }
 
     public void addSimulatedInitialMessages() {
-        List<Avatar> simulatedAvatars = avatarRepository.findByActiveTrue();
-        if (simulatedAvatars.isEmpty()) {
-            return;
-        }
-
         String[] sampleMessages = {
                 "Alguém conseguiu invadir o mainframe da Gibson hoje?",
                 "Muito fácil, deixaram a porta 21 aberta.",
@@ -114,6 +109,11 @@ public class SimulatedAvatarService {
                 "I hope you're ready for an adrenaline rush, because the data's about to flow."
         };
 
+        List<Avatar> simulatedAvatars = avatarRepository.findByActiveTrueOrderByIdAsc(Limit.of(sampleMessages.length));
+        if (simulatedAvatars.isEmpty()) {
+            return;
+        }
+
         for (int i = 0; i < Math.min(sampleMessages.length, simulatedAvatars.size()); i++) {
             Avatar avatar = simulatedAvatars.get(i);
             LocalDateTime msgDate = LocalDateTime.now(ZoneId.of("America/Sao_Paulo"));
@@ -140,18 +140,13 @@ public class SimulatedAvatarService {
     @Scheduled(fixedDelay = 60000)
     public void sendSimulatedMessage() {
         if (!firebaseEnabled) {
-            List<Avatar> simulatedAvatars = avatarRepository.findByActiveTrue().stream()
-                    .filter(a -> {
-                        DirtyUser user = userRepository.findById(a.getUserId()).orElse(null);
-                        return user != null && user.getFirebaseUid().startsWith("bot-uid-");
-                    })
-                    .toList();
-            
+            List<AvatarRepository.ChatIdentity> simulatedAvatars =
+                    avatarRepository.findActiveChatIdentitiesByUidPrefix(BOT_UID_PREFIX, Limit.of(MAX_SIMULATED_AVATARS));
             if (simulatedAvatars.isEmpty()) {
                 return;
             }
 
-            Avatar randomAvatar = simulatedAvatars.get(random.nextInt(simulatedAvatars.size()));
+            AvatarRepository.ChatIdentity randomAvatar = simulatedAvatars.get(GameRandom.current().nextInt(simulatedAvatars.size()));
             
             String[] simulatedMessages = {
                     "Alguém tem um convite pro tracker privado?",
@@ -162,7 +157,7 @@ public class SimulatedAvatarService {
                     "Acabei de subir um commit que quebrou a build, ops.",
                     "Café acabou, o sistema vai cair em 5 minutos."
             };
-            String message = simulatedMessages[random.nextInt(simulatedMessages.length)];
+            String message = simulatedMessages[GameRandom.current().nextInt(simulatedMessages.length)];
             
             LocalDateTime now = LocalDateTime.now(ZoneId.of("America/Sao_Paulo"));
             String timestamp = String.format("%02d:%02d", now.getHour(), now.getMinute());
@@ -176,8 +171,7 @@ public class SimulatedAvatarService {
                     .fullDate(fullDate)
                     .build();
             
-            chatService.addMessage(simulated);
-            messagingTemplate.convertAndSend("/topic/global-messages", simulated);
+            chatService.publish(simulated);
             log.info("Simulated message sent by {}", randomAvatar.getName());
         }
     }
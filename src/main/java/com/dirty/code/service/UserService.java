@@ -3,6 +3,7 @@ package com.dirty.code.service;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.dirty.code.config.security.PlayerPrincipal;
 import com.dirty.code.controller.UserController;
 import com.dirty.code.dto.AvatarResponseDTO;
 import com.dirty.code.dto.UserResponseDTO;
@@ -11,7 +12,6 @@ import com.dirty.code.repository.AvatarRepository;
 import com.dirty.code.repository.UserRepository;
 import com.dirty.code.repository.model.Avatar;
 import com.dirty.code.repository.model.DirtyUser;
-import com.google.firebase.auth.UserRecord;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,20 +26,18 @@ public class UserService implements UserController {
     private final AvatarService avatarService;
 
     @Override
-    public UserResponseDTO getMe(String uid) {
-        log.info("Fetching current user info for UID: {}", uid);
-        return userRepository.findByFirebaseUid(uid)
-                .map(this::mapToResponseDTO)
-                .orElseThrow(() -> new ResourceNotFoundException("DirtyUser not found with UID: " + uid));
-    }
+    public UserResponseDTO getMe(PlayerPrincipal player) {
+        log.info("Fetching current user info for UID: {}", player.uid());
+        DirtyUser user = userRepository.findById(player.userId())
+                .orElseThrow(() -> new ResourceNotFoundException("DirtyUser not found with UID: " + player.uid()));
 
-    private UserResponseDTO mapToResponseDTO(DirtyUser user) {
-        Avatar activeAvatar = avatarRepository.findByUserAndActiveTrue(user)
-                .orElse(null);
+        Avatar activeAvatar = player.activeAvatarId() != null
+                ? avatarRepository.findById(player.activeAvatarId()).orElse(null)
+                : null;
 
         if (activeAvatar != null) {
             // Auto-clear expired timeout (hospital/jail) if present
-            avatarService.clearExpiredTimeout(activeAvatar);
+            activeAvatar = avatarService.clearExpiredTimeout(activeAvatar);
         }
 
         AvatarResponseDTO avatarDTO = null;
@@ -57,25 +55,6 @@ public class UserService implements UserController {
                 .build();
     }
 
-    @Transactional
-    public void saveOrUpdateUser(UserRecord decodedToken) {
-        String uid = decodedToken.getUid();
-        log.info("Saving or updating user from UserRecord with UID: {}", uid);
-        String email = decodedToken.getEmail();
-        String name = decodedToken.getDisplayName();
-        String picture = decodedToken.getPhotoUrl();
-
-        saveOrUpdateUser(uid, email, name, picture);
-        log.info("Successfully processed UserRecord for UID: {}", uid);
-    }
-
-    public boolean existsByUid(String uid) {
-        log.info("Checking existence of user with UID: {}", uid);
-        boolean exists = userRepository.existsByFirebaseUid(uid);
-        log.info("DirtyUser with UID: {} exists: {}", uid, exists);
-        return exists;
-    }
-
     @Transactional
     public void saveOrUpdateUser(String uid, String email, String name, String picture) {
         userRepository.findByFirebaseUid(uid)
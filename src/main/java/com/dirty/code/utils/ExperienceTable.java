@@ -0,0 +1,82 @@
+package com.dirty.code.utils;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Memoized XP requirements per level plus their running totals, so level-ups do not recompute
+ * {@link GameFormulas#requiredExperienceForLevel(long)}. The table grows lazily (doubling) and is
+ * replaced as a whole, so readers never lock.
+ */
+public final class ExperienceTable {
+
+    private static final int INITIAL_LEVELS = 128;
+
+    /**
+     * {@code required[n]} is the XP needed to go from level n-1 to n. {@code cumulative[n]} is the sum of
+     * {@code required[1..n]}. Index 0 is unused and zero.
+     */
+    private record Table(BigInteger[] required, BigInteger[] cumulative) {
+        int maxLevel() {
+            return required.length - 1;
+        }
+    }
+
+    private static volatile Table table = new Table(new BigInteger[]{BigInteger.ZERO}, new BigInteger[]{BigInteger.ZERO});
+
+    private ExperienceTable() {
+    }
+
+    public static BigInteger requiredForLevel(int level) {
+        return tableFor(level).required()[level];
+    }
+
+    /**
+     * Highest level reachable from {@code fromLevel} by spending at most {@code budget} XP on the
+     * requirements of the levels after it, found with a binary search over the running totals.
+     */
+    public static int highestLevelReached(int fromLevel, BigInteger budget) {
+        Table current = tableFor(fromLevel + 1);
+        BigInteger target = current.cumulative()[fromLevel].add(budget);
+
+        while (current.cumulative()[current.maxLevel()].compareTo(target) <= 0) {
+            current = tableFor(current.maxLevel() + 1);
+        }
+
+        int index = Arrays.binarySearch(current.cumulative(), fromLevel, current.maxLevel() + 1, target);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    public static BigInteger experienceBetween(int fromLevel, int toLevel) {
+        Table current = tableFor(toLevel);
+        return current.cumulative()[toLevel].subtract(current.cumulative()[fromLevel]);
+    }
+
+    private static Table tableFor(int level) {
+        Table current = table;
+        return level <= current.maxLevel() ? current : grow(level);
+    }
+
+    private static synchronized Table grow(int level) {
+        Table current = table;
+        if (level <= current.maxLevel()) {
+            return current;
+        }
+
+        int size = Math.max(INITIAL_LEVELS, current.required().length);
+        while (size <= level) {
+            size = size > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE - 8 : size * 2;
+        }
+
+        BigInteger[] required = Arrays.copyOf(current.required(), size);
+        BigInteger[] cumulative = Arrays.copyOf(current.cumulative(), size);
+        for (int n = current.required().length; n < size; n++) {
+            required[n] = GameFormulas.computeRequiredExperienceForLevel(n);
+            cumulative[n] = cumulative[n - 1].add(required[n]);
+        }
+
+        Table grown = new Table(required, cumulative);
+        table = grown;
+        return grown;
+    }
+}
@@ -4,22 +4,28 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.MathContext;
 import java.math.RoundingMode;
-import java.util.Map;
-import java.util.Random;
 
 import com.dirty.code.repository.model.Attribute;
 import com.dirty.code.repository.model.TimeoutType;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
 
 public class GameFormulas {
 
-    private static final Random RANDOM = new Random();
+    private static final BigInteger LEVEL_ZERO_EXPERIENCE = new BigInteger("99999999");
 
     public static BigInteger requiredExperienceForLevel(long level) {
         if (level <= 0) {
-            return new BigInteger("99999999");
+            return LEVEL_ZERO_EXPERIENCE;
         }
+        if (level < Integer.MAX_VALUE) {
+            return ExperienceTable.requiredForLevel((int) level);
+        }
+        return computeRequiredExperienceForLevel(level);
+    }
 
+    static BigInteger computeRequiredExperienceForLevel(long level) {
         BigDecimal exponentialBase = BigDecimal.valueOf(120);
         BigDecimal growthRate = new BigDecimal("1.18");
         BigDecimal quadraticFactor = BigDecimal.valueOf(25);
@@ -66,19 +72,35 @@ public class GameFormulas {
         if (variation == null || variation <= 0) {
             return baseAmount;
         }
-        double randomFactor = (RANDOM.nextDouble() * 2 - 1); // random(-1, 1)
-        BigDecimal variationAmount = baseAmount.multiply(BigDecimal.valueOf(randomFactor * variation));
-        return baseAmount.add(variationAmount);
+        return GameNumbers.applyVariation(baseAmount, randomFactor() * variation);
+    }
+
+    /**
+     * Same as {@link #calculateMoneyVariation(BigDecimal, Double)} on an amount already in cents.
+     */
+    public static long calculateMoneyVariationCents(long baseCents, Double variation) {
+        if (variation == null || variation <= 0) {
+            return baseCents;
+        }
+        return GameNumbers.applyVariation(baseCents, randomFactor() * variation);
     }
 
     public static BigInteger calculateXpVariation(BigInteger baseAmount, Double variation) {
         if (variation == null || variation <= 0) {
             return baseAmount;
         }
-        double randomFactor = (RANDOM.nextDouble() * 2 - 1); // random(-1, 1)
-        BigDecimal baseAsDecimal = new BigDecimal(baseAmount);
-        BigDecimal variationAmount = baseAsDecimal.multiply(BigDecimal.valueOf(randomFactor * variation));
-        return baseAsDecimal.add(variationAmount).setScale(0, RoundingMode.HALF_UP).toBigInteger();
+        return GameNumbers.applyVariation(baseAmount, randomFactor() * variation);
+    }
+
+    public static long calculateXpVariation(long baseAmount, Double variation) {
+        if (variation == null || variation <= 0) {
+            return baseAmount;
+        }
+        return GameNumbers.applyVariation(baseAmount, randomFactor() * variation);
+    }
+
+    private static double randomFactor() {
+        return GameRandom.current().nextDouble() * 2 - 1; // random(-1, 1)
     }
 
     public static int calculateHpVariation(int baseAmount, Double variation) {
@@ -89,45 +111,67 @@ public class GameFormulas {
         if (variation == null || variation <= 0) {
             return baseAmount;
         }
-        double randomFactor = (RANDOM.nextDouble() * 2 - 1); // random(-1, 1)
-        return (int) Math.round(baseAmount + (baseAmount * randomFactor * variation));
+        return (int) Math.round(baseAmount + (baseAmount * randomFactor() * variation));
     }
 
-    public static double calculateFailureChance(
-            double baseFailureChance,
-            Map<Attribute, Integer> requiredAttributes,
-            Map<Attribute, Integer> avatarAttributes) {
-
-        double chance = baseFailureChance * 100;
-
-        for (Attribute attribute : Attribute.values()) {
-            int required = requiredAttributes.getOrDefault(attribute, 0);
-            int actual = avatarAttributes.getOrDefault(attribute, 0);
-            chance += calculateAttributeImpact(required, actual);
-
-            if (actual < 0) {
-                chance += 5.0; // Soma 5% de risco para cada status negativo
-            }
-        }
-
+    /**
+     * Failure chance of an action for an avatar. {@code required} holds the action requirements indexed
+     * by {@link Attribute#ordinal()}; the avatar's effective attributes are passed as plain ints so the
+     * evaluation allocates nothing.
+     */
+    public static double calculateFailureChance(double baseFailureChance, int[] required,
+                                                int strength, int intelligence, int charisma, int stealth) {
+        int penalty = attributePenalty(required[Attribute.STRENGTH.ordinal()], strength)
+                + attributePenalty(required[Attribute.INTELLIGENCE.ordinal()], intelligence)
+                + attributePenalty(required[Attribute.CHARISMA.ordinal()], charisma)
+                + attributePenalty(required[Attribute.STEALTH.ordinal()], stealth);
+
+        double chance = baseFailureChance * 100 + penalty;
         return Math.max(0, Math.min(100, chance)) / 100.0;
     }
 
-    private static double calculateAttributeImpact(int required, int actual) {
-        if (required > actual) {
-            return (required - actual) * 5.0;
-        } else if (actual > required) {
-            return (required - actual) * 1.0; // Isso dará um valor negativo, reduzindo a chance
-        }
-        return 0;
+    /**
+     * Batch form of {@link #calculateFailureChance(double, int[], int, int, int, int)}: scores every action
+     * of the matrix against one avatar and writes the chances to {@code out}, in matrix order.
+     * Gives exactly the same values as the single-action formula.
+     */
+    public static void calculateFailureChances(RequirementMatrix actions,
+                                               int strength, int intelligence, int charisma, int stealth,
+                                               double[] out) {
+        actions.score(strength, intelligence, charisma, stealth, out);
+    }
+
+    private static int attributePenalty(int required, int actual) {
+        // Each missing point adds 5%, each point above the requirement removes 1%
+        int impact = required > actual ? (required - actual) * 5 : required - actual;
+        return actual < 0 ? impact + 5 : impact; // Soma 5% de risco para cada status negativo
     }
 
     public static boolean isFailure(double failureChance) {
-        return RANDOM.nextDouble() < failureChance;
+        return GameRandom.current().nextDouble() < failureChance;
+    }
+
+    /**
+     * Samples the 1-based index of the first failure in a run of independent attempts, each failing
+     * with {@code failureChance}, by inverting the geometric distribution with a single draw.
+     * Returns {@code maxAttempts + 1} when no failure happens within {@code maxAttempts}.
+     */
+    public static long firstFailureIndex(double failureChance, long maxAttempts) {
+        if (failureChance <= 0) {
+            return maxAttempts + 1;
+        }
+        if (failureChance >= 1) {
+            return 1;
+        }
+        double uniform = 1.0 - GameRandom.current().nextDouble(); // (0, 1]
+        double index = Math.floor(Math.log(uniform) / Math.log1p(-failureChance)) + 1;
+        return index > maxAttempts ? maxAttempts + 1 : (long) index;
     }
 
     public static final int MAX_LIFE = 100;
     public static final int MAX_STAMINA = 100;
+    public static final int STAMINA_REGEN_PER_MINUTE = 1;
+    public static final int LIFE_REGEN_PER_MINUTE = 1;
     public static final double HIGH_RISK_THRESHOLD = 0.5;
     public static final int LOW_RISK_MULTIPLIER = 1;
     public static final int HIGH_RISK_MULTIPLIER = 3;
@@ -137,8 +181,19 @@ public class GameFormulas {
     public static final long HOSPITAL_COST_PER_LEVEL_BASE = 500L;
     public static final long JAIL_COST_PER_LEVEL_BASE = 1000L;
     public static final double PRICE_INCREASE_FACTOR = 1.5;
+    private static final BigDecimal PRICE_INCREASE_DECIMAL = BigDecimal.valueOf(PRICE_INCREASE_FACTOR);
+    private static final BigDecimal[] PRICE_FACTOR_POWERS = new BigDecimal[64];
+
+    static {
+        PRICE_FACTOR_POWERS[0] = BigDecimal.ONE;
+        for (int i = 1; i < PRICE_FACTOR_POWERS.length; i++) {
+            PRICE_FACTOR_POWERS[i] = PRICE_FACTOR_POWERS[i - 1].multiply(PRICE_INCREASE_DECIMAL);
+        }
+    }
     public static final int TEMPORARY_STATS_COOLDOWN_HOURS = 24;
     public static final int PERMANENT_STAT_INCREMENT = 1;
+    public static final int DR_STRANGE_WINDOW_MINUTES = 10;
+    public static final double DR_STRANGE_VISIBLE_CHANCE = 0.25;
 
     public static int riskMultiplier(double failureChance) {
         return failureChance > HIGH_RISK_THRESHOLD ? HIGH_RISK_MULTIPLIER : LOW_RISK_MULTIPLIER;
@@ -165,12 +220,33 @@ public class GameFormulas {
         return Math.min(MAX_STAMINA, Math.max(0, stamina));
     }
 
+    /**
+     * Passive regeneration of a stat over the given minutes. Values already at or above the max
+     * (e.g. stamina raised by strength) are left untouched.
+     */
+    public static int regenerate(int current, long minutes, int ratePerMinute, int max) {
+        if (current >= max || minutes <= 0) {
+            return current;
+        }
+        return (int) Math.min(max, current + minutes * ratePerMinute);
+    }
+
     public static BigDecimal clampMoney(BigDecimal money) {
         return money.compareTo(BigDecimal.ZERO) < 0 ? BigDecimal.ZERO : money;
     }
 
-    public static BigDecimal priceIncrease(BigDecimal currentPrice) {
-        return currentPrice.abs().multiply(BigDecimal.valueOf(PRICE_INCREASE_FACTOR)).negate();
+    /**
+     * Price of an action after the avatar bought it {@code purchaseCount} times:
+     * {@code -|basePrice| * 1.5^purchaseCount}, rounded to cents.
+     */
+    public static BigDecimal dynamicPrice(BigDecimal basePrice, int purchaseCount) {
+        if (basePrice == null || purchaseCount <= 0) {
+            return basePrice;
+        }
+        BigDecimal factor = purchaseCount < PRICE_FACTOR_POWERS.length
+                ? PRICE_FACTOR_POWERS[purchaseCount]
+                : PRICE_INCREASE_DECIMAL.pow(purchaseCount);
+        return basePrice.abs().multiply(factor).setScale(2, RoundingMode.HALF_UP).negate();
     }
 
     public static LocalDateTime temporaryStatsCooldown(LocalDateTime now) {
@@ -180,4 +256,21 @@ public class GameFormulas {
     public static int permanentStatIncrement(Integer current) {
         return (current != null ? current : 0) + PERMANENT_STAT_INCREMENT;
     }
+
+    /**
+     * Dr. Strange shows up for an avatar in 25% of the 10-minute windows. The roll is a hash of the
+     * avatar id and the window, so it is stable inside a window and needs no stored state.
+     */
+    public static boolean isDrStrangeVisible(UUID avatarId, LocalDateTime now) {
+        long window = now.toEpochSecond(ZoneOffset.UTC) / (DR_STRANGE_WINDOW_MINUTES * 60L);
+        long hash = mix64(avatarId.getMostSignificantBits() ^ mix64(avatarId.getLeastSignificantBits() ^ mix64(window)));
+        return (hash >>> 11) * 0x1.0p-53 < DR_STRANGE_VISIBLE_CHANCE;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
 }
@@ -0,0 +1,93 @@
+package com.dirty.code.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Fast paths for the XP and money arithmetic. While a value fits, it is handled as a {@code long} (XP)
+ * or a {@code long} number of cents (money) instead of BigInteger/BigDecimal. Anything that does not
+ * fit goes through the exact arbitrary-precision path. The entity fields keep their types; the
+ * conversion only happens around the hot computations.
+ * <p>
+ * Only the random variations use these paths. Checks and grants that are a single comparison or
+ * addition, like the cost check in {@code GameActionService} and {@code Avatar#increaseExperience},
+ * stay on BigDecimal/BigInteger.
+ */
+public final class GameNumbers {
+
+    /**
+     * Returned by the conversions when the value does not fit the fast path.
+     */
+    public static final long NOT_EXACT = Long.MIN_VALUE;
+
+    // Below 2^52 a value is exact as a double, and value + value * factor with |factor| < 1 is off by
+    // less than one unit before rounding, so the rounded result is within one of the exact one
+    private static final int MAX_EXACT_BITS = 52;
+    private static final int MAX_CENT_DIGITS = 15;
+    private static final int CENTS_SCALE = 2;
+
+    private GameNumbers() {
+    }
+
+    public static long toLong(BigInteger value) {
+        return value.bitLength() <= MAX_EXACT_BITS ? value.longValue() : NOT_EXACT;
+    }
+
+    /**
+     * @return the amount in cents, or {@link #NOT_EXACT} if it has sub-cent digits or is too large
+     */
+    public static long toCents(BigDecimal amount) {
+        if (amount.scale() > CENTS_SCALE) {
+            amount = amount.stripTrailingZeros();
+        }
+        if (amount.scale() > CENTS_SCALE || amount.precision() - amount.scale() + CENTS_SCALE > MAX_CENT_DIGITS) {
+            return NOT_EXACT;
+        }
+        return amount.movePointRight(CENTS_SCALE).longValue();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, CENTS_SCALE);
+    }
+
+    /**
+     * {@code value * (1 + factor)} rounded half up, for values returned by {@link #toLong}/{@link #toCents}.
+     * With {@code |factor| < 1} the result is at most one unit away from the exact one. The error grows
+     * with the value: for amounts the game actually reaches it only shows next to a .5 boundary.
+     */
+    public static long applyVariation(long value, double factor) {
+        double varied = value + value * factor;
+        return (long) (varied >= 0 ? Math.floor(varied + 0.5) : -Math.floor(-varied + 0.5));
+    }
+
+    /**
+     * Money variation. On the fast path the result is rounded to cents, the precision of the money columns.
+     */
+    public static BigDecimal applyVariation(BigDecimal amount, double factor) {
+        long cents = toCents(amount);
+        if (cents != NOT_EXACT) {
+            return fromCents(applyVariation(cents, factor));
+        }
+        return amount.add(amount.multiply(BigDecimal.valueOf(factor)));
+    }
+
+    public static BigInteger applyVariation(BigInteger amount, double factor) {
+        long value = toLong(amount);
+        if (value != NOT_EXACT) {
+            return BigInteger.valueOf(applyVariation(value, factor));
+        }
+        BigDecimal amountAsDecimal = new BigDecimal(amount);
+        return amountAsDecimal.add(amountAsDecimal.multiply(BigDecimal.valueOf(factor)))
+                .setScale(0, RoundingMode.HALF_UP)
+                .toBigInteger();
+    }
+
+    public static long addSaturating(long a, long b) {
+        long sum = a + b;
+        if (((a ^ sum) & (b ^ sum)) < 0) {
+            return a < 0 ? Long.MIN_VALUE + 1 : Long.MAX_VALUE;
+        }
+        return sum;
+    }
+}
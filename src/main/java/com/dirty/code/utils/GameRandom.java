@@ -0,0 +1,47 @@
+package com.dirty.code.utils;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Source of randomness for the game rules. Each thread draws from its own {@link SplittableRandom}
+ * split off a shared root, so request threads never contend on a common seed.
+ * <p>
+ * {@link #useSeed(long)} makes the root deterministic: a sequence of actions run on one thread
+ * after the call can be replayed bit for bit by calling it again with the same seed.
+ */
+public final class GameRandom {
+
+    private static volatile Streams streams = new Streams(new SplittableRandom());
+
+    private GameRandom() {
+    }
+
+    /**
+     * Generator of the calling thread. Not thread-safe, so don't hand it to other threads.
+     */
+    public static RandomGenerator current() {
+        return streams.perThread.get();
+    }
+
+    public static void useSeed(long seed) {
+        streams = new Streams(new SplittableRandom(seed));
+    }
+
+    public static void useUnseeded() {
+        streams = new Streams(new SplittableRandom());
+    }
+
+    private static final class Streams {
+        private final SplittableRandom root;
+        private final ThreadLocal<SplittableRandom> perThread = ThreadLocal.withInitial(this::split);
+
+        private Streams(SplittableRandom root) {
+            this.root = root;
+        }
+
+        private synchronized SplittableRandom split() {
+            return root.split();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.dirty.code.utils;
+
+import com.dirty.code.repository.model.Attribute;
+
+import java.util.List;
+
+/**
+ * Struct-of-arrays view of the requirements of a list of actions, scored against one avatar at a time
+ * by {@link GameFormulas#calculateFailureChances}. Requirements are stored as doubles; they are small
+ * integers, so every intermediate value is exact and the result matches the scalar formula bit for bit.
+ * <p>
+ * Scoring uses the Vector API when the {@code jdk.incubator.vector} module is present at runtime
+ * ({@code --add-modules jdk.incubator.vector}) and a plain loop otherwise.
+ */
+public final class RequirementMatrix {
+
+    static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    final int size;
+    final double[] baseChance; // base failure chance * 100
+    final double[] strength;
+    final double[] intelligence;
+    final double[] charisma;
+    final double[] stealth;
+
+    private RequirementMatrix(int size) {
+        this.size = size;
+        this.baseChance = new double[size];
+        this.strength = new double[size];
+        this.intelligence = new double[size];
+        this.charisma = new double[size];
+        this.stealth = new double[size];
+    }
+
+    /**
+     * @param baseFailureChances base failure chance of each action
+     * @param requirements       requirement vector of each action, indexed by {@link Attribute#ordinal()}
+     */
+    public static RequirementMatrix of(double[] baseFailureChances, List<int[]> requirements) {
+        RequirementMatrix matrix = new RequirementMatrix(baseFailureChances.length);
+        for (int i = 0; i < matrix.size; i++) {
+            int[] required = requirements.get(i);
+            matrix.baseChance[i] = baseFailureChances[i] * 100;
+            matrix.strength[i] = required[Attribute.STRENGTH.ordinal()];
+            matrix.intelligence[i] = required[Attribute.INTELLIGENCE.ordinal()];
+            matrix.charisma[i] = required[Attribute.CHARISMA.ordinal()];
+            matrix.stealth[i] = required[Attribute.STEALTH.ordinal()];
+        }
+        return matrix;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    void score(int strength, int intelligence, int charisma, int stealth, double[] out) {
+        if (VECTORIZED) {
+            VectorFailureScorer.score(this, strength, intelligence, charisma, stealth, out);
+        } else {
+            scoreScalar(0, strength, intelligence, charisma, stealth, out);
+        }
+    }
+
+    void scoreScalar(int from, int strength, int intelligence, int charisma, int stealth, double[] out) {
+        double negativePenalty = negativePenalty(strength, intelligence, charisma, stealth);
+        for (int i = from; i < size; i++) {
+            double penalty = impact(this.strength[i] - strength)
+                    + impact(this.intelligence[i] - intelligence)
+                    + impact(this.charisma[i] - charisma)
+                    + impact(this.stealth[i] - stealth)
+                    + negativePenalty;
+            double chance = baseChance[i] + penalty;
+            out[i] = Math.max(0, Math.min(100, chance)) / 100.0;
+        }
+    }
+
+    static double negativePenalty(int strength, int intelligence, int charisma, int stealth) {
+        return (strength < 0 ? 5 : 0) + (intelligence < 0 ? 5 : 0) + (charisma < 0 ? 5 : 0) + (stealth < 0 ? 5 : 0);
+    }
+
+    // 5% per missing point, -1% per point above the requirement: d + 4 * max(d, 0)
+    private static double impact(double missing) {
+        return missing + 4 * Math.max(missing, 0);
+    }
+}
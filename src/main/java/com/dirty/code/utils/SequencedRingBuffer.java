@@ -0,0 +1,152 @@
+package com.dirty.code.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Fixed-capacity history where each appended value gets the next sequence number and, once full,
+ * replaces the oldest one. Appends are serialized by a lock that only writers take; readers never
+ * block and always see a contiguous run of the latest values.
+ */
+public final class SequencedRingBuffer<T> {
+
+    private final int capacity;
+    private final AtomicReferenceArray<Entry<T>> slots;
+    private final Consumer<? super T> evictionListener;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Sequence the next append will get; everything below it is published
+    private volatile long nextSequence;
+
+    public SequencedRingBuffer(int capacity) {
+        this(capacity, _ -> {
+        });
+    }
+
+    /**
+     * @param evictionListener called with each value replaced by a newer one, while the write lock is held
+     */
+    public SequencedRingBuffer(int capacity, Consumer<? super T> evictionListener) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Appends the value built for the next sequence number, so the value can carry it.
+     *
+     * @return the appended value
+     */
+    public T append(LongFunction<T> valueForSequence) {
+        return append(valueForSequence, _ -> {
+        });
+    }
+
+    /**
+     * Same as {@link #append(LongFunction)}, then hands the value to {@code onPublished} while the write lock
+     * is still held, so consumers of {@code onPublished} see the values in sequence order.
+     *
+     * @return the appended value
+     */
+    public T append(LongFunction<T> valueForSequence, Consumer<? super T> onPublished) {
+        writeLock.lock();
+        try {
+            long sequence = nextSequence;
+            T value = valueForSequence.apply(sequence);
+            Entry<T> evicted = slots.getAndSet(slotOf(sequence), new Entry<>(sequence, value));
+            nextSequence = sequence + 1;
+            if (evicted != null) {
+                evictionListener.accept(evicted.value());
+            }
+            onPublished.accept(value);
+            return value;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Values currently held, oldest first.
+     */
+    public List<T> snapshot() {
+        return range(0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Up to {@code limit} values with a sequence above {@code sequence}, oldest first. If values after
+     * {@code sequence} were already evicted, starts from the oldest one still held.
+     */
+    public List<T> after(long sequence, int limit) {
+        long oldestHeld = Math.max(0, nextSequence - capacity);
+        long from = Math.max(plus(Math.max(sequence, -1), 1), oldestHeld);
+        return range(from, plus(from, Math.max(limit, 0)));
+    }
+
+    /**
+     * The last {@code limit} values with a sequence below {@code sequence}, oldest first.
+     */
+    public List<T> before(long sequence, int limit) {
+        long to = Math.min(sequence, nextSequence);
+        return range(minus(to, Math.max(limit, 0)), to);
+    }
+
+    /**
+     * @return the sequence of the latest value, or -1 while empty
+     */
+    public long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Held values with {@code fromInclusive <= sequence < toExclusive}, oldest first.
+     */
+    private List<T> range(long fromInclusive, long toExclusive) {
+        long published = nextSequence;
+        long end = Math.min(published, toExclusive);
+        long start = Math.max(Math.max(0, published - capacity), fromInclusive);
+        if (start >= end) {
+            return List.of();
+        }
+
+        List<Entry<T>> copied = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            copied.add(slots.get(slotOf(sequence)));
+        }
+
+        // Slots below this bound may have been overwritten while copying
+        long firstIntact = Math.max(start, nextSequence - capacity);
+        List<T> values = new ArrayList<>(copied.size());
+        for (Entry<T> entry : copied) {
+            if (entry != null && entry.sequence() >= firstIntact && entry.sequence() < end) {
+                values.add(entry.value());
+            }
+        }
+        return values;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // Cursors come from clients, so bounds saturate instead of wrapping around
+    private static long plus(long sequence, long amount) {
+        return sequence > Long.MAX_VALUE - amount ? Long.MAX_VALUE : sequence + amount;
+    }
+
+    private static long minus(long sequence, long amount) {
+        return sequence < Long.MIN_VALUE + amount ? Long.MIN_VALUE : sequence - amount;
+    }
+
+    private int slotOf(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private record Entry<T>(long sequence, T value) {
+    }
+}
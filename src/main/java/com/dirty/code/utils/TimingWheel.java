@@ -0,0 +1,105 @@
+package com.dirty.code.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Level 0 has one slot per tick. Each higher level has slots that are
+ * {@code wheelSize} times wider, and higher levels are added only when a deadline needs them.
+ * Scheduling is O(1). An entry moves down a level each time the clock reaches the start of its slot,
+ * and it is reported by {@link #advance(long, Consumer)} once the clock reaches its deadline, rounded
+ * up to the next tick so it never fires early.
+ * <p>
+ * Not thread-safe; callers synchronize around it.
+ */
+public class TimingWheel<T> {
+
+    private record Entry<T>(T key, long deadlineTick) {
+    }
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<List<ArrayDeque<Entry<T>>>> levels = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize at least 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * @return {@code false} if the deadline has already been reached, in which case nothing is scheduled
+     */
+    public boolean schedule(T key, long deadlineMillis) {
+        long deadlineTick = Math.ceilDiv(deadlineMillis, tickMillis);
+        if (deadlineTick <= currentTick) {
+            return false;
+        }
+        place(new Entry<>(key, deadlineTick));
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the clock forward to {@code nowMillis} and hands every entry that came due to {@code expired}.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            int highestLevel = 0;
+            long span = 1;
+            while (highestLevel + 1 < levels.size() && currentTick % (span * wheelSize) == 0) {
+                span *= wheelSize;
+                highestLevel++;
+            }
+            for (int level = highestLevel; level > 0; level--, span /= wheelSize) {
+                ArrayDeque<Entry<T>> bucket = bucket(level, currentTick / span);
+                Entry<T> entry;
+                while ((entry = bucket.poll()) != null) {
+                    place(entry);
+                }
+            }
+
+            ArrayDeque<Entry<T>> due = bucket(0, currentTick);
+            Entry<T> entry;
+            while ((entry = due.poll()) != null) {
+                size--;
+                expired.accept(entry.key());
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        int level = 0;
+        long span = 1;
+        while (entry.deadlineTick() / span - currentTick / span >= wheelSize) {
+            span *= wheelSize;
+            level++;
+        }
+        bucket(level, entry.deadlineTick() / span).add(entry);
+    }
+
+    private ArrayDeque<Entry<T>> bucket(int level, long slot) {
+        while (levels.size() <= level) {
+            List<ArrayDeque<Entry<T>>> buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayDeque<>());
+            }
+            levels.add(buckets);
+        }
+        return levels.get(level).get((int) (slot % wheelSize));
+    }
+}
@@ -0,0 +1,43 @@
+package com.dirty.code.utils;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API kernel of {@link RequirementMatrix}. Only loaded when the incubator module is present.
+ */
+final class VectorFailureScorer {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorFailureScorer() {
+    }
+
+    static void score(RequirementMatrix matrix, int strength, int intelligence, int charisma, int stealth, double[] out) {
+        double negativePenalty = RequirementMatrix.negativePenalty(strength, intelligence, charisma, stealth);
+        int bound = SPECIES.loopBound(matrix.size);
+
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector penalty = impact(matrix.strength, i, strength)
+                    .add(impact(matrix.intelligence, i, intelligence))
+                    .add(impact(matrix.charisma, i, charisma))
+                    .add(impact(matrix.stealth, i, stealth))
+                    .add(negativePenalty);
+
+            DoubleVector.fromArray(SPECIES, matrix.baseChance, i)
+                    .add(penalty)
+                    .min(100)
+                    .max(0)
+                    .div(100.0)
+                    .intoArray(out, i);
+        }
+
+        matrix.scoreScalar(i, strength, intelligence, charisma, stealth, out);
+    }
+
+    private static DoubleVector impact(double[] required, int offset, int actual) {
+        DoubleVector missing = DoubleVector.fromArray(SPECIES, required, offset).sub(actual);
+        return missing.add(missing.max(0).mul(4));
+    }
+}
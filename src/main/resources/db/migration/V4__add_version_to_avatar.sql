@@ -0,0 +1 @@
+ALTER TABLE avatar ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
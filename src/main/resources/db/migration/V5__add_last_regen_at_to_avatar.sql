@@ -0,0 +1,2 @@
+ALTER TABLE avatar ADD COLUMN last_regen_at TIMESTAMP;
+UPDATE avatar SET last_regen_at = CURRENT_TIMESTAMP WHERE last_regen_at IS NULL;
@@ -0,0 +1,2 @@
+-- Prices are now derived from purchase_count (action.money * 1.5^purchase_count)
+ALTER TABLE avatar_action_purchase DROP COLUMN current_price;
@@ -0,0 +1,2 @@
+-- Dr. Strange visibility is now derived from the avatar id and the current 10-minute window
+DROP TABLE avatar_special_action;
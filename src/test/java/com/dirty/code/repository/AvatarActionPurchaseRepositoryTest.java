@@ -0,0 +1,81 @@
+package com.dirty.code.repository;
+
+import com.dirty.code.repository.model.Avatar;
+import com.dirty.code.repository.model.AvatarActionPurchase;
+import com.dirty.code.repository.model.GameAction;
+import com.dirty.code.repository.model.GameActionType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AvatarActionPurchaseRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AvatarActionPurchaseRepository purchaseRepository;
+
+    @Test
+    void insertsTheFirstPurchaseAndIncrementsTheSameRowAfterwards() {
+        Avatar buyer = TestAvatars.persist(entityManager, Avatar.builder().name("Buyer"));
+        Avatar other = TestAvatars.persist(entityManager, Avatar.builder().name("Other"));
+        GameAction action = persistAction();
+        entityManager.flush();
+
+        for (int i = 0; i < 3; i++) {
+            purchaseRepository.incrementPurchaseCount(buyer.getId(), action.getId(), NOW.plusMinutes(i));
+        }
+        purchaseRepository.incrementPurchaseCount(other.getId(), action.getId(), NOW);
+        entityManager.clear();
+
+        assertThat(purchaseRepository.findPurchaseCountsByAvatarId(buyer.getId()))
+                .extracting(AvatarActionPurchaseRepository.PurchaseCount::getActionId,
+                        AvatarActionPurchaseRepository.PurchaseCount::getPurchaseCount)
+                .containsExactly(tuple(action.getId(), 3));
+        assertThat(purchaseRepository.findPurchaseCountsByAvatarId(other.getId()))
+                .extracting(AvatarActionPurchaseRepository.PurchaseCount::getPurchaseCount)
+                .containsExactly(1);
+
+        AvatarActionPurchase purchase = entityManager.createQuery(
+                        "select p from AvatarActionPurchase p where p.avatar.id = :avatarId", AvatarActionPurchase.class)
+                .setParameter("avatarId", buyer.getId())
+                .getSingleResult();
+        assertThat(purchase.getCreatedAt()).isEqualTo(NOW);
+        assertThat(purchase.getUpdatedAt()).isEqualTo(NOW.plusMinutes(2));
+    }
+
+    @Test
+    void rejectsASecondRowForTheSameAvatarAndAction() {
+        Avatar buyer = TestAvatars.persist(entityManager, Avatar.builder().name("Buyer"));
+        GameAction action = persistAction();
+        purchaseRepository.incrementPurchaseCount(buyer.getId(), action.getId(), NOW);
+
+        entityManager.persist(AvatarActionPurchase.builder().avatar(buyer).action(action).purchaseCount(1).build());
+        assertThatThrownBy(entityManager::flush).isInstanceOf(PersistenceException.class);
+    }
+
+    private GameAction persistAction() {
+        GameAction action = GameAction.builder()
+                .type(GameActionType.MARKET)
+                .title("Upgrade")
+                .money(BigDecimal.valueOf(-100))
+                .build();
+        entityManager.persist(action);
+        return action;
+    }
+}
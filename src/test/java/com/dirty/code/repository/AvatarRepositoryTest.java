@@ -0,0 +1,100 @@
+package com.dirty.code.repository;
+
+import com.dirty.code.repository.model.Avatar;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AvatarRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AvatarRepository avatarRepository;
+
+    @Test
+    void clearsOnlyExpiredCooldownsOfActiveAvatars() {
+        Avatar expired = persistAvatar(true, NOW.minusMinutes(1));
+        Avatar expiringNow = persistAvatar(true, NOW);
+        Avatar pending = persistAvatar(true, NOW.plusMinutes(1));
+        Avatar inactive = persistAvatar(false, NOW.minusMinutes(1));
+        Avatar withoutCooldown = persistAvatar(true, null);
+        flushAndClear();
+
+        int cleared = avatarRepository.clearExpiredTemporaryStats(NOW);
+
+        assertThat(cleared).isEqualTo(2);
+        assertCleared(expired);
+        assertCleared(expiringNow);
+        assertUntouched(pending);
+        assertUntouched(inactive);
+        assertUntouched(withoutCooldown);
+    }
+
+    @Test
+    void clearsOnlyExpiredCooldownsOfTheGivenAvatars() {
+        Avatar expired = persistAvatar(true, NOW.minusMinutes(1));
+        Avatar pending = persistAvatar(true, NOW.plusMinutes(1));
+        Avatar notGiven = persistAvatar(true, NOW.minusMinutes(1));
+        flushAndClear();
+
+        List<UUID> ids = List.of(expired.getId(), pending.getId());
+        assertThat(avatarRepository.findIdsWithExpiredStatusCooldown(ids, NOW)).containsExactly(expired.getId());
+
+        int cleared = avatarRepository.clearExpiredTemporaryStats(ids, NOW);
+
+        assertThat(cleared).isEqualTo(1);
+        assertCleared(expired);
+        assertUntouched(pending);
+        assertUntouched(notGiven);
+    }
+
+    private void assertCleared(Avatar before) {
+        Avatar after = entityManager.find(Avatar.class, before.getId());
+        assertThat(after.getTemporaryStrength()).isZero();
+        assertThat(after.getTemporaryIntelligence()).isZero();
+        assertThat(after.getTemporaryCharisma()).isZero();
+        assertThat(after.getTemporaryStealth()).isZero();
+        assertThat(after.getStatusCooldown()).isNull();
+        assertThat(after.getUpdatedAt()).isEqualTo(NOW);
+        // Bulk updates bypass @Version, so the query bumps it to fail concurrent entity writes
+        assertThat(after.getVersion()).isEqualTo(before.getVersion() + 1);
+    }
+
+    private void assertUntouched(Avatar before) {
+        Avatar after = entityManager.find(Avatar.class, before.getId());
+        assertThat(after.getTemporaryStrength()).isEqualTo(before.getTemporaryStrength());
+        assertThat(after.getTemporaryStealth()).isEqualTo(before.getTemporaryStealth());
+        assertThat(after.getStatusCooldown()).isEqualTo(before.getStatusCooldown());
+        assertThat(after.getVersion()).isEqualTo(before.getVersion());
+    }
+
+    private Avatar persistAvatar(boolean active, LocalDateTime statusCooldown) {
+        return TestAvatars.persist(entityManager, Avatar.builder()
+                .name("Cooldown")
+                .active(active)
+                .temporaryStrength(3)
+                .temporaryIntelligence(2)
+                .temporaryCharisma(1)
+                .temporaryStealth(4)
+                .statusCooldown(statusCooldown));
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
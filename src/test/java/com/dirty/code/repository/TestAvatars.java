@@ -0,0 +1,28 @@
+package com.dirty.code.repository;
+
+import com.dirty.code.repository.model.Avatar;
+import com.dirty.code.repository.model.DirtyUser;
+import jakarta.persistence.EntityManager;
+
+import java.util.UUID;
+
+/**
+ * Persistence fixture for JPA tests: every avatar gets its own user with a unique uid and email.
+ */
+public final class TestAvatars {
+
+    private TestAvatars() {
+    }
+
+    public static Avatar persist(EntityManager entityManager, Avatar.AvatarBuilder avatar) {
+        DirtyUser user = DirtyUser.builder()
+                .firebaseUid("uid-" + UUID.randomUUID())
+                .email(UUID.randomUUID() + "@example.com")
+                .build();
+        entityManager.persist(user);
+
+        Avatar persisted = avatar.userId(user.getId()).build();
+        entityManager.persist(persisted);
+        return persisted;
+    }
+}
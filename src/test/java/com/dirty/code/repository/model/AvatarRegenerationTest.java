@@ -0,0 +1,134 @@
+package com.dirty.code.repository.model;
+
+import com.dirty.code.utils.GameFormulas;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lazy regeneration against the removed RegenerationScheduler, which added one point per stat on every
+ * 60 s tick and skipped avatars whose timeout had not ended yet.
+ */
+class AvatarRegenerationTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    void matchesSchedulerTicksWithoutTimeout() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int scenario = 0; scenario < 1_000; scenario++) {
+            int stamina = random.nextInt(0, 130);
+            int life = random.nextInt(0, 101);
+            long elapsedSeconds = random.nextLong(0, 3 * 60 * 60);
+            LocalDateTime now = START.plusSeconds(elapsedSeconds);
+
+            Avatar avatar = avatar(stamina, life, null);
+            avatar.applyRegeneration(now);
+
+            int[] expected = schedulerResult(stamina, life, null, now);
+            assertThat(avatar.getStamina()).isEqualTo(expected[0]);
+            assertThat(avatar.getLife()).isEqualTo(expected[1]);
+        }
+    }
+
+    @Test
+    void staysWithinOneTickOfSchedulerAcrossTimeouts() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int scenario = 0; scenario < 1_000; scenario++) {
+            int stamina = random.nextInt(0, 101);
+            int life = random.nextInt(0, 101);
+            LocalDateTime timeout = START.plusSeconds(random.nextLong(0, 60 * 60));
+            LocalDateTime now = START.plusSeconds(random.nextLong(0, 2 * 60 * 60));
+
+            Avatar avatar = avatar(stamina, life, timeout);
+            avatar.applyRegeneration(now);
+
+            int[] expected = schedulerResult(stamina, life, timeout, now);
+            assertThat(avatar.getStamina()).isBetween(expected[0] - 1, expected[0] + 1);
+            assertThat(avatar.getLife()).isBetween(expected[1] - 1, expected[1] + 1);
+        }
+    }
+
+    @Test
+    void repeatedWritesCarryTheIncompleteMinute() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int scenario = 0; scenario < 200; scenario++) {
+            Avatar stepped = avatar(0, 0, null);
+            LocalDateTime now = START;
+            for (int write = 0; write < 20; write++) {
+                now = now.plusSeconds(random.nextLong(0, 150));
+                stepped.applyRegeneration(now);
+            }
+
+            Avatar once = avatar(0, 0, null);
+            once.applyRegeneration(now);
+
+            assertThat(stepped.getStamina()).isEqualTo(once.getStamina());
+            assertThat(stepped.getLife()).isEqualTo(once.getLife());
+            assertThat(stepped.getLastRegenAt()).isEqualTo(once.getLastRegenAt());
+        }
+    }
+
+    @Test
+    void readingDoesNotChangeTheAvatar() {
+        Avatar avatar = avatar(10, 20, null);
+
+        Avatar.Regenerated regenerated = avatar.regeneratedAt(START.plusMinutes(30));
+
+        assertThat(regenerated.stamina()).isEqualTo(40);
+        assertThat(regenerated.life()).isEqualTo(50);
+        assertThat(avatar.getStamina()).isEqualTo(10);
+        assertThat(avatar.getLife()).isEqualTo(20);
+        assertThat(avatar.getLastRegenAt()).isEqualTo(START);
+    }
+
+    @Test
+    void leavesStatsAboveTheMaxUntouched() {
+        Avatar avatar = avatar(150, 100, null);
+
+        avatar.applyRegeneration(START.plusMinutes(30));
+
+        assertThat(avatar.getStamina()).isEqualTo(150);
+        assertThat(avatar.getLife()).isEqualTo(100);
+    }
+
+    @Test
+    void doesNotRegenerateDuringAnActiveTimeout() {
+        Avatar avatar = avatar(10, 10, START.plusMinutes(45));
+
+        avatar.applyRegeneration(START.plusMinutes(30));
+
+        assertThat(avatar.getStamina()).isEqualTo(10);
+        assertThat(avatar.getLife()).isEqualTo(10);
+    }
+
+    private static Avatar avatar(int stamina, int life, LocalDateTime timeout) {
+        return Avatar.builder()
+                .stamina(stamina)
+                .life(life)
+                .timeout(timeout)
+                .lastRegenAt(START)
+                .build();
+    }
+
+    /**
+     * What the scheduler left after ticking every minute from {@link #START} until {@code now}.
+     */
+    private static int[] schedulerResult(int stamina, int life, LocalDateTime timeout, LocalDateTime now) {
+        for (LocalDateTime tick = START.plusMinutes(1); !tick.isAfter(now); tick = tick.plusMinutes(1)) {
+            if (timeout != null && timeout.isAfter(tick)) {
+                continue;
+            }
+            if (stamina < GameFormulas.MAX_STAMINA) {
+                stamina = Math.min(stamina + GameFormulas.STAMINA_REGEN_PER_MINUTE, GameFormulas.MAX_STAMINA);
+            }
+            if (life < GameFormulas.MAX_LIFE) {
+                life = Math.min(life + GameFormulas.LIFE_REGEN_PER_MINUTE, GameFormulas.MAX_LIFE);
+            }
+        }
+        return new int[]{stamina, life};
+    }
+}
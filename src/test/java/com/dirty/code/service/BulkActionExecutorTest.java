@@ -0,0 +1,246 @@
+package com.dirty.code.service;
+
+import com.dirty.code.repository.AvatarActionPurchaseRepository;
+import com.dirty.code.repository.AvatarRepository;
+import com.dirty.code.repository.model.Avatar;
+import com.dirty.code.repository.model.GameAction;
+import com.dirty.code.repository.model.GameActionType;
+import com.dirty.code.utils.GameRandom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.ToDoubleFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * The bulk execution against the per-run loop of {@link GameActionService#performAction}: identical when
+ * nothing is random, and the same distribution of the outcome when it is.
+ */
+class BulkActionExecutorTest {
+
+    private static final int TRIALS = 20_000;
+
+    private GameActionProcessor processor;
+    private BulkActionExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        // Stub-only mocks: the distribution tests call them millions of times and must not record invocations
+        AvatarExpiryService expiryService = mock(AvatarExpiryService.class, withSettings().stubOnly());
+        AvatarTimeoutService timeoutService = new AvatarTimeoutService(mock(AvatarRepository.class, withSettings().stubOnly()), expiryService);
+        GameActionCatalog catalog = mock(GameActionCatalog.class, withSettings().stubOnly());
+        when(catalog.requirementVector(any())).thenReturn(new int[4]);
+
+        processor = new GameActionProcessor(timeoutService, mock(AvatarActionPurchaseRepository.class, withSettings().stubOnly()),
+                expiryService, catalog);
+        executor = new BulkActionExecutor(processor, timeoutService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        GameRandom.useUnseeded();
+    }
+
+    @Test
+    void matchesLoopExactlyWithoutRandomness() {
+        GameAction training = action(GameActionType.TRAINING, 0.0)
+                .stamina(-7).hp(-3).money(BigDecimal.valueOf(25)).xp(BigInteger.valueOf(400))
+                .temporaryStrength(2)
+                .build();
+        GameAction market = action(GameActionType.MARKET, 0.0)
+                .stamina(0).hp(4).money(BigDecimal.valueOf(-20)).xp(BigInteger.ZERO)
+                .build();
+
+        for (GameAction action : new GameAction[]{training, market}) {
+            for (int times : new int[]{2, 5, 13, 50, 1_000}) {
+                Avatar looped = avatar();
+                Avatar bulk = avatar();
+                Outcome expected = loop(looped, action, times);
+                Outcome actual = bulk(bulk, action, times);
+
+                assertThat(actual).isEqualTo(expected);
+                assertThat(bulk.getStamina()).isEqualTo(looped.getStamina());
+                assertThat(bulk.getLife()).isEqualTo(looped.getLife());
+                assertThat(bulk.getMoney()).isEqualByComparingTo(looped.getMoney());
+                assertThat(bulk.getTotalExperience()).isEqualTo(looped.getTotalExperience());
+                assertThat(bulk.getLevel()).isEqualTo(looped.getLevel());
+                assertThat(bulk.getTemporaryStrength()).isEqualTo(looped.getTemporaryStrength());
+                assertThat(bulk.getTimeoutType()).isEqualTo(looped.getTimeoutType());
+            }
+        }
+    }
+
+    @Test
+    void matchesLoopDistributionWithVariationsAndFailures() {
+        GameAction hacking = action(GameActionType.HACKING, 0.08)
+                .stamina(-4).hp(-6).hpVariation(0.5)
+                .money(BigDecimal.valueOf(120)).moneyVariation(0.3)
+                .xp(BigInteger.valueOf(900)).xpVariation(0.4)
+                .lostHpFailure(BigInteger.valueOf(15))
+                .build();
+
+        Samples looped = new Samples();
+        GameRandom.useSeed(1);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            Avatar avatar = avatar();
+            looped.add(loop(avatar, hacking, 30), avatar);
+        }
+
+        Samples bulk = new Samples();
+        GameRandom.useSeed(2);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            Avatar avatar = avatar();
+            bulk.add(bulk(avatar, hacking, 30), avatar);
+        }
+
+        assertSameMean(looped, bulk, Sample::times);
+        assertSameMean(looped, bulk, Sample::success);
+        assertSameMean(looped, bulk, Sample::hospitalized);
+        assertSameMean(looped, bulk, Sample::life);
+        assertSameMean(looped, bulk, Sample::money);
+        assertSameMean(looped, bulk, Sample::experience);
+        assertSameMean(looped, bulk, Sample::stamina);
+    }
+
+    @Test
+    void approximatesLongVariationSumsWithTheLoopDistribution() {
+        // Above EXACT_VARIATION_RUNS the sums are drawn in one step; XP variation above 1 folds negative runs to zero
+        GameAction market = action(GameActionType.HACKING, 0.0)
+                .stamina(0).hp(0)
+                .money(BigDecimal.valueOf(35)).moneyVariation(0.6)
+                .xp(BigInteger.valueOf(250)).xpVariation(1.5)
+                .build();
+        int times = 400;
+        int trials = 2_000;
+
+        Samples looped = new Samples();
+        GameRandom.useSeed(3);
+        for (int trial = 0; trial < trials; trial++) {
+            Avatar avatar = avatar();
+            looped.add(loop(avatar, market, times), avatar);
+        }
+
+        Samples bulk = new Samples();
+        GameRandom.useSeed(4);
+        for (int trial = 0; trial < trials; trial++) {
+            Avatar avatar = avatar();
+            bulk.add(bulk(avatar, market, times), avatar);
+        }
+
+        for (ToDoubleFunction<Sample> metric : List.<ToDoubleFunction<Sample>>of(Sample::money, Sample::experience)) {
+            assertThat(bulk.mean(metric)).isCloseTo(looped.mean(metric),
+                    offset(5 * Math.sqrt((looped.variance(metric) + bulk.variance(metric)) / trials)));
+            assertThat(Math.sqrt(bulk.variance(metric))).isCloseTo(Math.sqrt(looped.variance(metric)),
+                    offset(0.1 * Math.sqrt(looped.variance(metric))));
+        }
+        assertThat(bulk.mean(Sample::times)).isEqualTo(times);
+    }
+
+    @Test
+    void boundsApproximatedSumsByTheirExtremes() {
+        GameRandom.useSeed(5);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(BulkActionExecutor.sumOfVariations(100, 0.5, 40, false)).isBetween(40 * 50.0, 40 * 150.0);
+            assertThat(BulkActionExecutor.sumOfVariations(100, 2.0, 40, true)).isBetween(0.0, 40 * 300.0);
+            assertThat(BulkActionExecutor.sumOfVariations(-100, 0.5, 40, true)).isZero();
+        }
+    }
+
+    private Outcome loop(Avatar avatar, GameAction action, int times) {
+        Map<UUID, Integer> purchaseCounts = new HashMap<>();
+        int executions = 0;
+        boolean success = true;
+        for (int i = 0; i < times; i++) {
+            if (!canPerform(avatar, action, purchaseCounts)) {
+                break;
+            }
+            executions++;
+            success = processor.processActionEffects(avatar, action, purchaseCounts);
+            if (!success || avatar.getTimeout() != null) {
+                break;
+            }
+        }
+        return new Outcome(executions, success);
+    }
+
+    private Outcome bulk(Avatar avatar, GameAction action, int times) {
+        Map<UUID, Integer> purchaseCounts = new HashMap<>();
+        assertThat(executor.supports(action, purchaseCounts)).isTrue();
+        BulkActionExecutor.BulkResult result = executor.execute(avatar, action, purchaseCounts, times);
+        return new Outcome(result.getTimesExecuted(), result.isSuccess());
+    }
+
+    // Same checks as GameActionService.canPerformAction after the first run
+    private boolean canPerform(Avatar avatar, GameAction action, Map<UUID, Integer> purchaseCounts) {
+        BigDecimal price = processor.calculateDynamicPrice(purchaseCounts, action);
+        if (price != null && price.signum() < 0 && avatar.getMoney().compareTo(price.abs()) < 0) {
+            return false;
+        }
+        return action.getStamina() >= 0 || avatar.getStamina() >= -action.getStamina();
+    }
+
+    private static void assertSameMean(Samples expected, Samples actual, ToDoubleFunction<Sample> metric) {
+        double standardError = Math.sqrt(expected.variance(metric) / TRIALS + actual.variance(metric) / TRIALS);
+        // Five standard errors: with fixed seeds this never flakes, and a biased bulk path still fails
+        assertThat(actual.mean(metric)).isCloseTo(expected.mean(metric),
+                offset(5 * standardError + 1e-9));
+    }
+
+    private static GameAction.GameActionBuilder action(GameActionType type, double failureChance) {
+        return GameAction.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .title(type.name())
+                .failureChance(failureChance);
+    }
+
+    private static Avatar avatar() {
+        return Avatar.builder()
+                .id(UUID.randomUUID())
+                .name("Bulk")
+                .stamina(100)
+                .life(100)
+                .money(BigDecimal.valueOf(150))
+                .build();
+    }
+
+    private record Outcome(int times, boolean success) {
+    }
+
+    private record Sample(double times, double success, double hospitalized, double life, double money,
+                          double experience, double stamina) {
+    }
+
+    private static final class Samples {
+        private final List<Sample> samples = new ArrayList<>();
+
+        void add(Outcome outcome, Avatar avatar) {
+            samples.add(new Sample(outcome.times(), outcome.success() ? 1 : 0,
+                    avatar.getTimeoutType() != null ? 1 : 0, avatar.getLife(), avatar.getMoney().doubleValue(),
+                    avatar.getTotalExperience().doubleValue(), avatar.getStamina()));
+        }
+
+        double mean(ToDoubleFunction<Sample> metric) {
+            return samples.stream().mapToDouble(metric).average().orElse(0);
+        }
+
+        double variance(ToDoubleFunction<Sample> metric) {
+            double mean = mean(metric);
+            return samples.stream().mapToDouble(metric).map(value -> (value - mean) * (value - mean)).average().orElse(0);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.dirty.code.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatRateLimiterTest {
+
+    @Test
+    void acceptsExactlyCapacityForOneSenderAcrossThreads() throws Exception {
+        ChatRateLimiter limiter = new ChatRateLimiter();
+        int threads = 32;
+        int attemptsPerThread = 200;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        long waitMillis = limiter.tryAcquire("same-uid");
+                        if (waitMillis == 0) {
+                            accepted.incrementAndGet();
+                        } else {
+                            assertThat(waitMillis).isPositive();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        // All attempts run well within one refill interval
+        assertThat(accepted).hasValue(ChatRateLimiter.CAPACITY);
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsBucketCountBoundedForManySenders() {
+        ChatRateLimiter limiter = new ChatRateLimiter();
+        for (int i = 0; i < 2_000_000; i++) {
+            assertThat(limiter.tryAcquire("uid-" + i)).isZero();
+            if (i % 100_000 == 0) {
+                assertThat(limiter.size()).isLessThanOrEqualTo(ChatRateLimiter.MAX_BUCKETS);
+            }
+        }
+        assertThat(limiter.size()).isLessThanOrEqualTo(ChatRateLimiter.MAX_BUCKETS);
+    }
+}
@@ -0,0 +1,116 @@
+package com.dirty.code.service;
+
+import com.dirty.code.dto.ChatMessageDTO;
+import com.dirty.code.dto.JsonFrame;
+import com.dirty.code.repository.AvatarRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ChatServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonFrame> broadcasts = Collections.synchronizedList(new ArrayList<>());
+    private ChatService chatService;
+    private String epoch;
+
+    @BeforeEach
+    void setUp() {
+        SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+        doAnswer(invocation -> broadcasts.add(invocation.getArgument(1)))
+                .when(messagingTemplate).convertAndSend(eq("/topic/global-messages"), any(Object.class));
+
+        chatService = new ChatService(mock(AvatarRepository.class), new ChatRateLimiter(),
+                messagingTemplate, new PlaceholderNameIndex(mock(ResourceLoader.class)),
+                new SimpleMeterRegistry());
+        for (int i = 0; i < 5; i++) {
+            chatService.publish(ChatMessageDTO.builder().avatarName("Bot").message("message " + i).build());
+        }
+        epoch = chatService.getMessages(null, null, 1, null).getFirst().getEpoch();
+    }
+
+    @Test
+    void sendsMessagesAfterACurrentCursor() throws IOException {
+        assertThat(sequences(chatService.getInitialMessages(2L, epoch))).containsExactly(3L, 4L);
+        assertThat(sequences(chatService.getInitialMessages(4L, epoch))).isEmpty();
+    }
+
+    @Test
+    void sendsWholeHistoryForMissingOrStaleCursor() throws IOException {
+        assertThat(sequences(chatService.getInitialMessages(null, epoch))).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThat(sequences(chatService.getInitialMessages(1_000L, epoch))).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThat(sequences(chatService.getInitialMessages(Long.MAX_VALUE, epoch))).containsExactly(0L, 1L, 2L, 3L, 4L);
+        // A cursor from before a restart can be behind the new sequences; only its epoch tells it apart
+        assertThat(sequences(chatService.getInitialMessages(2L, "previous-boot"))).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThat(sequences(chatService.getInitialMessages(2L, null))).containsExactly(0L, 1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void pagesFromTheLatestMessagesForStaleCursor() {
+        assertThat(chatService.getMessages(1_000L, null, 2, epoch)).extracting(ChatMessageDTO::getSeq).containsExactly(3L, 4L);
+        assertThat(chatService.getMessages(Long.MAX_VALUE, null, Integer.MAX_VALUE, epoch)).hasSize(5);
+        assertThat(chatService.getMessages(null, Long.MIN_VALUE, Integer.MAX_VALUE, epoch)).isEmpty();
+        assertThat(chatService.getMessages(0L, null, 2, "previous-boot")).extracting(ChatMessageDTO::getSeq).containsExactly(3L, 4L);
+        assertThat(chatService.getMessages(null, 2L, 2, "previous-boot")).extracting(ChatMessageDTO::getSeq).containsExactly(3L, 4L);
+        assertThat(chatService.getMessages(null, 2L, 2, epoch)).extracting(ChatMessageDTO::getSeq).containsExactly(0L, 1L);
+    }
+
+    @Test
+    void broadcastsConcurrentMessagesInSequenceOrder() throws Exception {
+        int threads = 8;
+        int messagesPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> senders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                senders.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < messagesPerThread; i++) {
+                        chatService.publish(ChatMessageDTO.builder().avatarName("Bot").message("concurrent").build());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> sender : senders) {
+                sender.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> sequences = new ArrayList<>();
+        for (JsonFrame frame : broadcasts) {
+            sequences.add(objectMapper.readTree(frame.bytes()).get("seq").asLong());
+        }
+        assertThat(sequences).hasSize(5 + threads * messagesPerThread).isSorted().doesNotHaveDuplicates();
+    }
+
+    private List<Long> sequences(JsonFrame frame) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        for (JsonNode message : objectMapper.readTree(frame.bytes())) {
+            sequences.add(message.get("seq").asLong());
+        }
+        return sequences;
+    }
+}
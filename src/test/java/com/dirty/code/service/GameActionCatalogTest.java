@@ -0,0 +1,55 @@
+package com.dirty.code.service;
+
+import com.dirty.code.repository.AvatarActionPurchaseRepository;
+import com.dirty.code.repository.GameActionRepository;
+import com.dirty.code.repository.model.Avatar;
+import com.dirty.code.repository.model.GameAction;
+import com.dirty.code.repository.model.GameActionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GameActionCatalogTest {
+
+    @Test
+    void keepsActionsAndFailureChancesAlignedAcrossAReload() {
+        GameActionRepository repository = mock(GameActionRepository.class);
+        when(repository.findAll()).thenReturn(actions(3, 0.1)).thenReturn(actions(7, 0.5));
+        GameActionCatalog catalog = new GameActionCatalog(repository);
+        GameActionProcessor processor = new GameActionProcessor(mock(AvatarTimeoutService.class),
+                mock(AvatarActionPurchaseRepository.class), mock(AvatarExpiryService.class), catalog);
+        Avatar avatar = Avatar.builder().strength(5).intelligence(5).charisma(5).stealth(5).build();
+
+        GameActionCatalog.ActionsOfType listed = catalog.findByType(GameActionType.HACKING);
+        catalog.reload();
+        double[] chances = processor.calculateFailureChances(avatar, listed);
+
+        assertThat(catalog.findByType(GameActionType.HACKING).actions()).hasSize(7);
+        assertThat(chances).hasSameSizeAs(listed.actions().toArray());
+        for (int i = 0; i < chances.length; i++) {
+            GameAction action = listed.actions().get(i);
+            assertThat(listed.toDTO(i).getId()).isEqualTo(action.getId());
+            assertThat(chances[i]).isEqualTo(processor.calculateFailureChance(avatar, action));
+        }
+    }
+
+    private static List<GameAction> actions(int count, double failureChance) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> GameAction.builder()
+                        .id(UUID.randomUUID())
+                        .type(GameActionType.HACKING)
+                        .title("Hack " + i)
+                        .money(BigDecimal.TEN)
+                        .failureChance(failureChance + i / 100.0)
+                        .requiredIntelligence(i * 3)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.dirty.code.service;
+
+import com.dirty.code.repository.AvatarActionPurchaseRepository;
+import com.dirty.code.repository.TestAvatars;
+import com.dirty.code.repository.model.Avatar;
+import com.dirty.code.repository.model.AvatarActionPurchase;
+import com.dirty.code.repository.model.GameAction;
+import com.dirty.code.repository.model.GameActionType;
+import com.dirty.code.utils.GameFormulas;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Pricing every action of the catalog must cost one purchase query, however many actions there are.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class GameActionProcessorPurchaseQueryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AvatarActionPurchaseRepository purchaseRepository;
+
+    private GameActionProcessor processor;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        processor = new GameActionProcessor(mock(AvatarTimeoutService.class), purchaseRepository,
+                mock(AvatarExpiryService.class), mock(GameActionCatalog.class));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 50})
+    void pricesAllActionsWithOnePurchaseQuery(int actionCount) {
+        Avatar avatar = TestAvatars.persist(entityManager, Avatar.builder().name("Buyer"));
+        List<GameAction> actions = new ArrayList<>();
+        for (int i = 0; i < actionCount; i++) {
+            GameAction action = persistAction(i);
+            actions.add(action);
+            // Every other action was bought i times
+            if (i % 2 == 1) {
+                persistPurchase(avatar, action, i);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        Map<UUID, Integer> purchaseCounts = processor.resolvePurchaseCounts(avatar);
+        List<BigDecimal> prices = actions.stream()
+                .map(action -> processor.calculateDynamicPrice(purchaseCounts, action))
+                .toList();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        for (int i = 0; i < actionCount; i++) {
+            int expectedCount = i % 2 == 1 ? i : 0;
+            assertThat(prices.get(i)).isEqualTo(GameFormulas.dynamicPrice(actions.get(i).getMoney(), expectedCount));
+        }
+    }
+
+    private GameAction persistAction(int index) {
+        GameAction action = GameAction.builder()
+                .type(GameActionType.MARKET)
+                .title("Action " + index)
+                .money(BigDecimal.valueOf(100 + index))
+                .build();
+        entityManager.persist(action);
+        return action;
+    }
+
+    private void persistPurchase(Avatar avatar, GameAction action, int count) {
+        entityManager.persist(AvatarActionPurchase.builder()
+                .avatar(avatar)
+                .action(action)
+                .purchaseCount(count)
+                .build());
+    }
+}
@@ -0,0 +1,27 @@
+package com.dirty.code.service;
+
+import com.dirty.code.exception.BadRequestException;
+import com.dirty.code.repository.AvatarRepository;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class GameActionServiceTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {Integer.MIN_VALUE, -1, 0, GameActionService.MAX_TIMES + 1, Integer.MAX_VALUE})
+    void rejectsTimesOutsideTheAllowedRange(int times) {
+        AvatarWriteLane writeLane = mock(AvatarWriteLane.class);
+        GameActionService service = new GameActionService(mock(GameActionCatalog.class), mock(AvatarRepository.class),
+                mock(AvatarTimeoutService.class), mock(GameActionProcessor.class), mock(BulkActionExecutor.class), writeLane);
+
+        assertThatThrownBy(() -> service.performAction(null, UUID.randomUUID(), times))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(writeLane);
+    }
+}
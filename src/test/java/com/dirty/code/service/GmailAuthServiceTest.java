@@ -0,0 +1,177 @@
+package com.dirty.code.service;
+
+import com.dirty.code.config.FirebaseProperties;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.web.servlet.view.RedirectView;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+/**
+ * The Gmail callback against stubbed Google token and Firebase sign-in endpoints, going through the
+ * real Feign clients. Firebase Admin calls, which have no HTTP seam, are stubbed on the service.
+ */
+@SpringBootTest
+class GmailAuthServiceTest {
+
+    private static final String TOKEN_PATH = "/token";
+    private static final String SIGN_IN_PATH = "/v1/accounts:signInWithCustomToken";
+    private static final String UID = "google:12345";
+    private static final List<String> PHASES = List.of("code_exchange", "id_token_verification",
+            "local_user_upsert", "firebase_user", "custom_token", "custom_token_exchange");
+
+    private static final WireMockServer googleApis = new WireMockServer(options().dynamicPort());
+
+    static {
+        googleApis.start();
+    }
+
+    @DynamicPropertySource
+    static void googleApiUrls(DynamicPropertyRegistry registry) {
+        registry.add("gcp.oauth-token-url", googleApis::baseUrl);
+        registry.add("gcp.id-token.certs-url", googleApis::baseUrl);
+        registry.add("firebase.auth-url", () -> googleApis.baseUrl() + "/v1");
+        registry.add("firebase.api-key", () -> "test-api-key");
+        registry.add("app.frontend.login-url", () -> "http://front/login?token=%s&refreshToken=%s");
+    }
+
+    @Autowired
+    private GmailAuthService gmailAuthService;
+
+    @Autowired
+    private FirebaseProperties firebaseProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private GcpService gcpService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoSpyBean
+    private FirebaseService firebaseService;
+
+    @BeforeEach
+    void setUp() {
+        googleApis.resetAll();
+        meterRegistry.clear();
+        firebaseProperties.setEnabled(true);
+
+        googleApis.stubFor(post(urlPathEqualTo(TOKEN_PATH))
+                .withRequestBody(containing("code=auth-code"))
+                .willReturn(okJson("{\"id_token\": \"google-id-token\", \"access_token\": \"access\"}")));
+
+        GoogleIdToken.Payload payload = new GoogleIdToken.Payload();
+        payload.setSubject("12345");
+        payload.setEmail("player@example.com");
+        payload.set("name", "Player");
+        when(gcpService.verifyGoogleIdToken("google-id-token")).thenReturn(payload);
+
+        doReturn(null).when(firebaseService).getOrCreateFirebaseUser(eq(UID), any());
+        doReturn("custom-token").when(firebaseService).createFirebaseCustomToken(eq(UID), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        firebaseProperties.setEnabled(false);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        googleApis.stop();
+    }
+
+    @Test
+    void exchangesCodeAndCustomTokenAndTimesEveryPhase() {
+        googleApis.stubFor(post(urlPathEqualTo(SIGN_IN_PATH))
+                .withQueryParam("key", equalTo("test-api-key"))
+                .withRequestBody(equalToJson("{\"token\": \"custom-token\", \"returnSecureToken\": true}"))
+                .willReturn(okJson("{\"idToken\": \"firebase-id\", \"refreshToken\": \"firebase-refresh\"}")));
+
+        RedirectView redirect = gmailAuthService.gmailCallBack("auth-code");
+
+        assertThat(redirect.getUrl()).isEqualTo("http://front/login?token=firebase-id&refreshToken=firebase-refresh");
+        googleApis.verify(1, postRequestedFor(urlPathEqualTo(TOKEN_PATH)));
+        googleApis.verify(1, postRequestedFor(urlPathEqualTo(SIGN_IN_PATH)));
+        for (String phase : PHASES) {
+            assertThat(phaseCount(phase)).as(phase).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void failsWhenTheCustomTokenExchangeFails() {
+        googleApis.stubFor(post(urlPathEqualTo(SIGN_IN_PATH))
+                .willReturn(aResponse().withStatus(500)));
+
+        assertThatThrownBy(() -> gmailAuthService.gmailCallBack("auth-code")).isInstanceOf(RuntimeException.class);
+
+        googleApis.verify(1, postRequestedFor(urlPathEqualTo(SIGN_IN_PATH)));
+        assertThat(phaseCount("custom_token_exchange")).isEqualTo(1);
+    }
+
+    @Test
+    void cancelsPendingStepsWhenOneFails() throws InterruptedException {
+        CountDownLatch localUserStarted = new CountDownLatch(1);
+        CountDownLatch localUserInterrupted = new CountDownLatch(1);
+        doAnswer(_ -> {
+            localUserStarted.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                localUserInterrupted.countDown();
+            }
+            return null;
+        }).when(userService).saveOrUpdateUser(eq(UID), anyString(), anyString(), any());
+        doAnswer(_ -> {
+            localUserStarted.await();
+            throw new IllegalStateException("Firebase unavailable");
+        }).when(firebaseService).getOrCreateFirebaseUser(eq(UID), any());
+
+        assertThatThrownBy(() -> gmailAuthService.gmailCallBack("auth-code"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Firebase unavailable");
+
+        assertThat(localUserInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        googleApis.verify(0, postRequestedFor(urlPathEqualTo(SIGN_IN_PATH)));
+        assertThat(phaseCount("custom_token_exchange")).isZero();
+    }
+
+    private long phaseCount(String phase) {
+        Timer timer = meterRegistry.find("login.callback.phase").tag("phase", phase).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
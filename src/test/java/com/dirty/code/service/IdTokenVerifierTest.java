@@ -0,0 +1,132 @@
+package com.dirty.code.service;
+
+import com.dirty.code.integrations.jwks.FileJwksKeySource;
+import com.dirty.code.integrations.jwks.IdTokenKeySource;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.json.webtoken.JsonWebToken;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tokens signed with locally generated keys and verified against a JWKS file, the setup load tests use.
+ */
+class IdTokenVerifierTest {
+
+    private static final String CLIENT_ID = "client-id.apps.googleusercontent.com";
+
+    private static KeyPair current;
+    private static KeyPair other;
+
+    @BeforeAll
+    static void generateKeys() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        current = generator.generateKeyPair();
+        other = generator.generateKeyPair();
+    }
+
+    @Test
+    void acceptsTokenSignedWithAKnownKey() throws Exception {
+        IdTokenVerifier verifier = verifier(new FileJwksKeySource(jwksFile(Map.of("key-1", current))));
+
+        assertThat(verifier.verify(token("key-1", current, claims())))
+                .hasValueSatisfying(payload -> assertThat(payload.getEmail()).isEqualTo("player@example.com"));
+    }
+
+    @Test
+    void rejectsTokensThatAreNotValidForThisClient() throws Exception {
+        IdTokenVerifier verifier = verifier(new FileJwksKeySource(jwksFile(Map.of("key-1", current))));
+        long now = System.currentTimeMillis() / 1000;
+
+        assertThat(verifier.verify(token("key-1", other, claims()))).as("bad signature").isEmpty();
+        assertThat(verifier.verify(token("key-1", current, claims().setAudience("other-client")))).as("audience").isEmpty();
+        assertThat(verifier.verify(token("key-1", current, claims().setIssuer("https://evil.example.com")))).as("issuer").isEmpty();
+        assertThat(verifier.verify(token("key-1", current, claims().setIssuedAtTimeSeconds(now - 7200)
+                .setExpirationTimeSeconds(now - 3600)))).as("expired").isEmpty();
+        assertThat(verifier.verify(token(null, current, claims()))).as("no key id").isEmpty();
+        assertThat(verifier.verify("not-a-token")).as("malformed").isEmpty();
+    }
+
+    @Test
+    void reloadsKeysForAnUnknownKeyIdAtMostOncePerInterval() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        Map<String, KeyPair> published = new ConcurrentHashMap<>(Map.of("key-1", current));
+        IdTokenKeySource source = () -> {
+            loads.incrementAndGet();
+            return new FileJwksKeySource(jwksFile(published)).loadKeys();
+        };
+        IdTokenVerifier verifier = verifier(source);
+
+        assertThat(verifier.verify(token("key-1", current, claims()))).isPresent();
+        assertThat(loads).hasValue(1);
+
+        // Google rotated its keys right after the first load: the new id waits for the interval to pass
+        published.put("key-2", other);
+        assertThat(verifier.verify(token("key-2", other, claims()))).isEmpty();
+        assertThat(loads).hasValue(1);
+
+        ReflectionTestUtils.setField(verifier, "lastReloadMillis", System.currentTimeMillis() - 60_001);
+        assertThat(verifier.verify(token("key-2", other, claims()))).isPresent();
+        assertThat(verifier.verify(token("key-1", current, claims()))).isPresent();
+        assertThat(loads).hasValue(2);
+
+        assertThat(verifier.verify(token("key-3", other, claims()))).isEmpty();
+        assertThat(verifier.verify(token("key-3", other, claims()))).isEmpty();
+        assertThat(loads).hasValue(2);
+    }
+
+    private static IdTokenVerifier verifier(IdTokenKeySource source) {
+        IdTokenVerifier verifier = new IdTokenVerifier(source);
+        ReflectionTestUtils.setField(verifier, "clientId", CLIENT_ID);
+        return verifier;
+    }
+
+    private static JsonWebToken.Payload claims() {
+        long now = System.currentTimeMillis() / 1000;
+        JsonWebToken.Payload payload = new JsonWebToken.Payload()
+                .setIssuer("https://accounts.google.com")
+                .setAudience(CLIENT_ID)
+                .setSubject("12345")
+                .setIssuedAtTimeSeconds(now)
+                .setExpirationTimeSeconds(now + 3600);
+        payload.set("email", "player@example.com");
+        return payload;
+    }
+
+    private static String token(String keyId, KeyPair signer, JsonWebToken.Payload payload) throws GeneralSecurityException, IOException {
+        JsonWebSignature.Header header = new JsonWebSignature.Header().setAlgorithm("RS256").setType("JWT").setKeyId(keyId);
+        return JsonWebSignature.signUsingRsaSha256(signer.getPrivate(), GsonFactory.getDefaultInstance(), header, payload);
+    }
+
+    private static ByteArrayResource jwksFile(Map<String, KeyPair> keys) {
+        StringBuilder json = new StringBuilder("{\"keys\": [");
+        String separator = "";
+        for (Map.Entry<String, KeyPair> key : keys.entrySet()) {
+            RSAPublicKey publicKey = (RSAPublicKey) key.getValue().getPublic();
+            json.append(separator).append(String.format("{\"kty\": \"RSA\", \"alg\": \"RS256\", \"kid\": \"%s\", \"n\": \"%s\", \"e\": \"%s\"}",
+                    key.getKey(), base64Url(publicKey.getModulus().toByteArray()), base64Url(publicKey.getPublicExponent().toByteArray())));
+            separator = ", ";
+        }
+        return new ByteArrayResource(json.append("]}").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
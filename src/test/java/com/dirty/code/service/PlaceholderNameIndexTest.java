@@ -0,0 +1,137 @@
+package com.dirty.code.service;
+
+import com.dirty.code.config.security.PlayerPrincipal;
+import com.dirty.code.dto.ChatMessageDTO;
+import com.dirty.code.dto.ChatRequestDTO;
+import com.dirty.code.repository.AvatarRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A single configured name, so every collision goes through the suffixes.
+ */
+class PlaceholderNameIndexTest {
+
+    private PlaceholderNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ResourceLoader resourceLoader = mock(ResourceLoader.class);
+        when(resourceLoader.getResource(anyString())).thenReturn(new ByteArrayResource(
+                "{\"badDeveloperFunnyNames\": [\"Bug\"]}".getBytes(StandardCharsets.UTF_8)));
+        index = new PlaceholderNameIndex(resourceLoader);
+        index.init();
+    }
+
+    @Test
+    void givesEachUserADistinctName() {
+        assertThat(index.allocate("a")).isEqualTo("Bug");
+        assertThat(index.allocate("b")).isEqualTo("Bug_2");
+        assertThat(index.allocate("c")).isEqualTo("Bug_3");
+        // The holder asking again keeps its name
+        assertThat(index.allocate("a")).isEqualTo("Bug");
+    }
+
+    @Test
+    void skipsNamesShownInTheHistoryUntilTheyLeaveIt() {
+        index.enteredHistory("Bug");
+        index.enteredHistory("Bug");
+        index.enteredHistory("Bug_2");
+        assertThat(index.allocate("a")).isEqualTo("Bug_3");
+
+        index.leftHistory("Bug");
+        assertThat(index.allocate("b")).isEqualTo("Bug_4");
+        index.leftHistory("Bug");
+        assertThat(index.allocate("c")).isEqualTo("Bug");
+    }
+
+    @Test
+    void reusesTheLowestReleasedSuffix() {
+        for (int i = 1; i <= 50; i++) {
+            index.allocate("user-" + i);
+        }
+        index.release("Bug_7", "user-7");
+        index.release("Bug_3", "user-3");
+        // Only the holder can release a name
+        index.release("Bug_5", "user-6");
+
+        assertThat(index.allocate("new-1")).isEqualTo("Bug_3");
+        assertThat(index.allocate("new-2")).isEqualTo("Bug_7");
+        assertThat(index.allocate("new-3")).isEqualTo("Bug_51");
+    }
+
+    @Test
+    void allocatesUniqueNamesConcurrently() throws Exception {
+        int threads = 16;
+        int usersPerThread = 200;
+        Set<String> allocated = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < usersPerThread; i++) {
+                        assertThat(allocated.add(index.allocate(thread + "-" + i))).isTrue();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+
+        // Lowest free suffixes: no gaps once everyone holds a name
+        assertThat(allocated).hasSize(threads * usersPerThread).contains("Bug", "Bug_" + threads * usersPerThread);
+    }
+
+    @Test
+    void freesTheNameWhenTheChatEvictsTheUserAndTheMessage() {
+        AvatarRepository avatarRepository = mock(AvatarRepository.class);
+        UUID avatarId = UUID.randomUUID();
+        when(avatarRepository.findAvatarNameById(avatarId)).thenReturn(Optional.of("Avatar"));
+        ChatService chatService = new ChatService(avatarRepository, new ChatRateLimiter(),
+                mock(SimpMessagingTemplate.class), index, new SimpleMeterRegistry());
+
+        ChatRequestDTO request = new ChatRequestDTO();
+        request.setMessage("hello");
+        chatService.sendMessage(new PlayerPrincipal("guest", UUID.randomUUID(), null), request);
+        assertThat(chatService.getMessages(null, null, 1, null)).extracting(ChatMessageDTO::getAvatarName).containsExactly("Bug");
+
+        // Creating an avatar drops the placeholder from the cache, which releases it...
+        chatService.sendMessage(new PlayerPrincipal("guest", UUID.randomUUID(), avatarId), request);
+        assertThat(index.allocate("other")).isEqualTo("Bug_2");
+        index.release("Bug_2", "other");
+
+        // ...and the name is free again once its message leaves the history
+        for (int i = 0; i < 2000; i++) {
+            chatService.publish(ChatMessageDTO.builder().avatarName("Bot").message("filler").build());
+        }
+        assertThat(index.allocate("other")).isEqualTo("Bug");
+    }
+}
@@ -0,0 +1,83 @@
+package com.dirty.code.service;
+
+import com.dirty.code.config.security.PlayerPrincipal;
+import com.dirty.code.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlayerPrincipalResolverTest {
+
+    private static final String UID = "uid-1";
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private UserRepository userRepository;
+    private PlayerPrincipalResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        resolver = new PlayerPrincipalResolver(userRepository);
+    }
+
+    @Test
+    void cachesResolvedPrincipal() {
+        when(userRepository.findPrincipalByFirebaseUid(UID)).thenReturn(Optional.of(ids(UUID.randomUUID())));
+
+        PlayerPrincipal first = resolver.resolve(UID).orElseThrow();
+        PlayerPrincipal second = resolver.resolve(UID).orElseThrow();
+
+        assertThat(second).isEqualTo(first);
+        verify(userRepository, times(1)).findPrincipalByFirebaseUid(UID);
+    }
+
+    @Test
+    void doesNotCacheLookupOverlappingAnInvalidation() {
+        UUID oldAvatar = UUID.randomUUID();
+        UUID newAvatar = UUID.randomUUID();
+        // The first lookup reads the old row, then the avatar change commits before it returns
+        when(userRepository.findPrincipalByFirebaseUid(UID))
+                .thenAnswer(_ -> {
+                    resolver.invalidate(UID);
+                    return Optional.of(ids(oldAvatar));
+                })
+                .thenReturn(Optional.of(ids(newAvatar)));
+
+        assertThat(resolver.resolve(UID).orElseThrow().activeAvatarId()).isEqualTo(oldAvatar);
+        assertThat(resolver.resolve(UID).orElseThrow().activeAvatarId()).isEqualTo(newAvatar);
+        assertThat(resolver.resolve(UID).orElseThrow().activeAvatarId()).isEqualTo(newAvatar);
+        verify(userRepository, times(2)).findPrincipalByFirebaseUid(UID);
+    }
+
+    @Test
+    void doesNotCacheUnknownUids() {
+        when(userRepository.findPrincipalByFirebaseUid(UID))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(ids(null)));
+
+        assertThat(resolver.resolve(UID)).isEmpty();
+        assertThat(resolver.resolve(UID)).contains(new PlayerPrincipal(UID, USER_ID, null));
+    }
+
+    private static UserRepository.PrincipalIds ids(UUID activeAvatarId) {
+        return new UserRepository.PrincipalIds() {
+            @Override
+            public UUID getUserId() {
+                return USER_ID;
+            }
+
+            @Override
+            public UUID getActiveAvatarId() {
+                return activeAvatarId;
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.dirty.code.utils;
+
+import com.dirty.code.repository.model.Avatar;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The memoized table against the formula it caches and the one-level-at-a-time loop it replaced.
+ */
+class ExperienceTableTest {
+
+    @Test
+    void requirementsMatchTheFormulaAcrossGrowthBoundaries() {
+        for (int level = 1; level <= 600; level++) {
+            assertThat(ExperienceTable.requiredForLevel(level))
+                    .as("level %d", level)
+                    .isEqualTo(GameFormulas.computeRequiredExperienceForLevel(level));
+        }
+    }
+
+    @Test
+    void highestLevelReachedMatchesSpendingLevelByLevel() {
+        SplittableRandom random = new SplittableRandom(10);
+        for (int i = 0; i < 2_000; i++) {
+            int fromLevel = random.nextInt(0, 300);
+            BigInteger budget = randomBudget(random, fromLevel);
+
+            int expectedLevel = fromLevel;
+            BigInteger remaining = budget;
+            while (remaining.compareTo(GameFormulas.computeRequiredExperienceForLevel(expectedLevel + 1)) >= 0) {
+                remaining = remaining.subtract(GameFormulas.computeRequiredExperienceForLevel(expectedLevel + 1));
+                expectedLevel++;
+            }
+
+            int reached = ExperienceTable.highestLevelReached(fromLevel, budget);
+            assertThat(reached).isEqualTo(expectedLevel);
+            assertThat(budget.subtract(ExperienceTable.experienceBetween(fromLevel, reached))).isEqualTo(remaining);
+        }
+    }
+
+    @Test
+    void increaseExperienceMatchesTheLevelUpLoop() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 500; i++) {
+            Avatar avatar = Avatar.builder().availablePoints(0).build();
+            Avatar reference = Avatar.builder().availablePoints(0).build();
+            for (int grant = 0; grant < 5; grant++) {
+                BigInteger xp = randomBudget(random, avatar.getLevel());
+                avatar.increaseExperience(xp);
+                increaseExperienceLevelByLevel(reference, xp);
+
+                assertThat(avatar.getLevel()).isEqualTo(reference.getLevel());
+                assertThat(avatar.getExperience()).isEqualTo(reference.getExperience());
+                assertThat(avatar.getTotalExperience()).isEqualTo(reference.getTotalExperience());
+                assertThat(avatar.getNextLevelExperience()).isEqualTo(reference.getNextLevelExperience());
+                assertThat(avatar.getAvailablePoints()).isEqualTo(reference.getAvailablePoints());
+            }
+        }
+    }
+
+    @Test
+    void concurrentGrowthServesConsistentValues() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    for (int i = 0; i < 200; i++) {
+                        int level = random.nextInt(1, 2_000);
+                        assertThat(ExperienceTable.requiredForLevel(level))
+                                .isEqualTo(GameFormulas.computeRequiredExperienceForLevel(level));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    /**
+     * XP worth anything from a fraction of the next level to a few hundred levels.
+     */
+    private static BigInteger randomBudget(SplittableRandom random, int fromLevel) {
+        int levels = random.nextInt(0, 4) == 0 ? random.nextInt(0, 300) : random.nextInt(0, 3);
+        BigInteger budget = ExperienceTable.experienceBetween(fromLevel, fromLevel + levels);
+        return budget.add(BigInteger.valueOf(random.nextLong(0, 1_000_000)));
+    }
+
+    // Avatar.increaseExperience before the table: one level per iteration
+    private static void increaseExperienceLevelByLevel(Avatar avatar, BigInteger xp) {
+        avatar.setTotalExperience(avatar.getTotalExperience().add(xp));
+        avatar.setExperience(avatar.getExperience().add(xp));
+        while (avatar.getExperience().compareTo(avatar.getNextLevelExperience()) >= 0) {
+            avatar.setExperience(avatar.getExperience().subtract(avatar.getNextLevelExperience()));
+            avatar.setLevel(avatar.getLevel() + 1);
+            avatar.setAvailablePoints(avatar.getAvailablePoints() + 1);
+            avatar.setNextLevelExperience(GameFormulas.computeRequiredExperienceForLevel(avatar.getLevel() + 1));
+        }
+    }
+}
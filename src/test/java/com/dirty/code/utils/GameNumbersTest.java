@@ -0,0 +1,80 @@
+package com.dirty.code.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameNumbersTest {
+
+    private static final long MAX_FAST_VALUE = (1L << 52) - 1;
+
+    @Test
+    void variationIsWithinOneUnitOfTheExactResult() {
+        SplittableRandom random = new SplittableRandom(14);
+        for (int i = 0; i < 1_000_000; i++) {
+            // Half the samples near the top of the fast range, where the double product loses bits
+            long value = i % 2 == 0 ? random.nextLong(-MAX_FAST_VALUE, MAX_FAST_VALUE + 1)
+                    : MAX_FAST_VALUE - random.nextLong(1_000_000);
+            double factor = random.nextDouble(-1, 1);
+
+            assertThat(Math.abs(GameNumbers.applyVariation(value, factor) - exactVariation(value, factor)))
+                    .isLessThanOrEqualTo(1);
+        }
+    }
+
+    @Test
+    void variationMatchesTheExactResultForGameSizedValues() {
+        SplittableRandom random = new SplittableRandom(52);
+        int differences = 0;
+        int samples = 1_000_000;
+        for (int i = 0; i < samples; i++) {
+            long value = random.nextLong(-(1L << 32), 1L << 32);
+            double factor = random.nextDouble(-1, 1);
+            if (GameNumbers.applyVariation(value, factor) != exactVariation(value, factor)) {
+                differences++;
+            }
+        }
+        // Only products that land next to a .5 boundary round differently
+        assertThat(differences).isLessThan(samples / 10_000);
+    }
+
+    @Test
+    void convertsOnlyValuesThatFitTheFastPath() {
+        assertThat(GameNumbers.toLong(BigInteger.valueOf(MAX_FAST_VALUE))).isEqualTo(MAX_FAST_VALUE);
+        assertThat(GameNumbers.toLong(BigInteger.valueOf(-MAX_FAST_VALUE))).isEqualTo(-MAX_FAST_VALUE);
+        assertThat(GameNumbers.toLong(BigInteger.ONE.shiftLeft(52))).isEqualTo(GameNumbers.NOT_EXACT);
+
+        assertThat(GameNumbers.toCents(new BigDecimal("12.30"))).isEqualTo(1230);
+        assertThat(GameNumbers.toCents(new BigDecimal("12.3000"))).isEqualTo(1230);
+        assertThat(GameNumbers.toCents(new BigDecimal("12.345"))).isEqualTo(GameNumbers.NOT_EXACT);
+        assertThat(GameNumbers.toCents(new BigDecimal("9999999999999.99"))).isEqualTo(999999999999999L);
+        assertThat(GameNumbers.toCents(new BigDecimal("10000000000000.00"))).isEqualTo(GameNumbers.NOT_EXACT);
+        assertThat(GameNumbers.fromCents(1230)).isEqualByComparingTo("12.30");
+    }
+
+    @Test
+    void fallsBackToExactArithmeticForLargeValues() {
+        BigInteger large = BigInteger.TEN.pow(30);
+        assertThat(GameNumbers.applyVariation(large, 0.5)).isEqualTo(large.add(large.divide(BigInteger.TWO)));
+
+        BigDecimal subCent = new BigDecimal("10.005");
+        assertThat(GameNumbers.applyVariation(subCent, 0.5)).isEqualByComparingTo("15.0075");
+    }
+
+    @Test
+    void saturatesInsteadOfOverflowing() {
+        assertThat(GameNumbers.addSaturating(Long.MAX_VALUE - 1, 5)).isEqualTo(Long.MAX_VALUE);
+        assertThat(GameNumbers.addSaturating(Long.MIN_VALUE + 1, -5)).isEqualTo(Long.MIN_VALUE + 1);
+        assertThat(GameNumbers.addSaturating(40, 2)).isEqualTo(42);
+    }
+
+    private static long exactVariation(long value, double factor) {
+        BigDecimal exact = new BigDecimal(value).multiply(BigDecimal.ONE.add(new BigDecimal(factor)));
+        return exact.setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
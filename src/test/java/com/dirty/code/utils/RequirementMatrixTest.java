@@ -0,0 +1,54 @@
+package com.dirty.code.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The Vector API kernel and the batch loop against the per-action formula, which they must match bit
+ * for bit. Sizes cover empty lists, lists shorter than one vector and lists with a scalar tail.
+ */
+class RequirementMatrixTest {
+
+    @Test
+    void runsWithTheVectorModule() {
+        assertThat(RequirementMatrix.VECTORIZED).isTrue();
+    }
+
+    @Test
+    void vectorAndScalarScoresMatchTheFormula() {
+        SplittableRandom random = new SplittableRandom(12);
+        for (int size = 0; size <= 67; size++) {
+            for (int round = 0; round < 20; round++) {
+                double[] baseChances = new double[size];
+                List<int[]> requirements = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    baseChances[i] = random.nextInt(0, 101) / 100.0;
+                    requirements.add(new int[]{random.nextInt(0, 60), random.nextInt(0, 60),
+                            random.nextInt(0, 60), random.nextInt(0, 60)});
+                }
+                RequirementMatrix matrix = RequirementMatrix.of(baseChances, requirements);
+                int strength = random.nextInt(-10, 80);
+                int intelligence = random.nextInt(-10, 80);
+                int charisma = random.nextInt(-10, 80);
+                int stealth = random.nextInt(-10, 80);
+
+                double[] vector = new double[size];
+                double[] scalar = new double[size];
+                VectorFailureScorer.score(matrix, strength, intelligence, charisma, stealth, vector);
+                matrix.scoreScalar(0, strength, intelligence, charisma, stealth, scalar);
+
+                for (int i = 0; i < size; i++) {
+                    double expected = GameFormulas.calculateFailureChance(baseChances[i], requirements.get(i),
+                            strength, intelligence, charisma, stealth);
+                    assertThat(vector[i]).as("vector, size %d, action %d", size, i).isEqualTo(expected);
+                    assertThat(scalar[i]).as("scalar, size %d, action %d", size, i).isEqualTo(expected);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.dirty.code.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SequencedRingBufferTest {
+
+    private static final int CAPACITY = 64;
+
+    @Test
+    void snapshotsDuringConcurrentAppendsAreContiguous() throws Exception {
+        SequencedRingBuffer<Long> buffer = new SequencedRingBuffer<>(CAPACITY);
+        int writers = 4;
+        int readers = 4;
+        int appendsPerWriter = 200_000;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers + readers)) {
+            List<Future<?>> writerFutures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                writerFutures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < appendsPerWriter; i++) {
+                        buffer.append(sequence -> sequence);
+                    }
+                    return null;
+                }));
+            }
+
+            List<Future<Integer>> readerFutures = new ArrayList<>();
+            for (int r = 0; r < readers; r++) {
+                readerFutures.add(executor.submit(() -> {
+                    start.await();
+                    int checked = 0;
+                    while (writing.get()) {
+                        long lastBefore = buffer.lastSequence();
+                        assertContiguous(buffer.snapshot(), lastBefore, buffer.lastSequence());
+                        assertContiguous(buffer.after(lastBefore - CAPACITY / 2, CAPACITY), lastBefore, buffer.lastSequence());
+                        checked++;
+                    }
+                    return checked;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : writerFutures) {
+                future.get();
+            }
+            writing.set(false);
+            for (Future<Integer> future : readerFutures) {
+                assertThat(future.get()).isPositive();
+            }
+        }
+
+        long last = (long) writers * appendsPerWriter - 1;
+        assertThat(buffer.lastSequence()).isEqualTo(last);
+        assertThat(buffer.snapshot()).hasSize(CAPACITY).first().isEqualTo(last - CAPACITY + 1);
+    }
+
+    @Test
+    void readsRangesAroundASequence() {
+        SequencedRingBuffer<Long> buffer = new SequencedRingBuffer<>(CAPACITY);
+        assertThat(buffer.lastSequence()).isEqualTo(-1);
+        assertThat(buffer.snapshot()).isEmpty();
+
+        for (int i = 0; i < 100; i++) {
+            buffer.append(sequence -> sequence);
+        }
+
+        assertThat(buffer.snapshot()).hasSize(CAPACITY).first().isEqualTo(36L);
+        assertThat(buffer.after(90, 5)).containsExactly(91L, 92L, 93L, 94L, 95L);
+        assertThat(buffer.after(-1, 3)).containsExactly(36L, 37L, 38L);
+        assertThat(buffer.before(40, 10)).containsExactly(36L, 37L, 38L, 39L);
+        assertThat(buffer.before(100, 2)).containsExactly(98L, 99L);
+    }
+
+    @Test
+    void clampsCursorsAtTheEndsOfTheSequenceRange() {
+        SequencedRingBuffer<Long> buffer = new SequencedRingBuffer<>(CAPACITY);
+        for (int i = 0; i < 10; i++) {
+            buffer.append(sequence -> sequence);
+        }
+
+        assertThat(buffer.after(Long.MAX_VALUE, 10)).isEmpty();
+        assertThat(buffer.after(Long.MAX_VALUE - 5, Integer.MAX_VALUE)).isEmpty();
+        assertThat(buffer.after(Long.MIN_VALUE, 2)).containsExactly(0L, 1L);
+        assertThat(buffer.after(7, Integer.MAX_VALUE)).containsExactly(8L, 9L);
+        assertThat(buffer.before(Long.MIN_VALUE, 10)).isEmpty();
+        assertThat(buffer.before(Long.MIN_VALUE + 3, Integer.MAX_VALUE)).isEmpty();
+        assertThat(buffer.before(Long.MAX_VALUE, 2)).containsExactly(8L, 9L);
+        assertThat(buffer.before(3, Integer.MAX_VALUE)).containsExactly(0L, 1L, 2L);
+    }
+
+    @Test
+    void reportsEvictedValues() {
+        List<Long> evicted = new ArrayList<>();
+        SequencedRingBuffer<Long> buffer = new SequencedRingBuffer<>(3, evicted::add);
+        for (int i = 0; i < 5; i++) {
+            buffer.append(sequence -> sequence);
+        }
+        assertThat(evicted).containsExactly(0L, 1L);
+        assertThat(buffer.snapshot()).containsExactly(2L, 3L, 4L);
+    }
+
+    /**
+     * Values must be consecutive sequences, at most one capacity long, and end no earlier than the last
+     * sequence published before the read started and no later than the one published after it.
+     */
+    private static void assertContiguous(List<Long> values, long lastBefore, long lastAfter) {
+        assertThat(values.size()).isLessThanOrEqualTo(CAPACITY);
+        for (int i = 1; i < values.size(); i++) {
+            assertThat(values.get(i)).isEqualTo(values.get(i - 1) + 1);
+        }
+        if (!values.isEmpty()) {
+            assertThat(values.getFirst()).isGreaterThanOrEqualTo(lastBefore - CAPACITY + 1);
+            assertThat(values.getLast()).isBetween(lastBefore, lastAfter);
+        }
+    }
+}